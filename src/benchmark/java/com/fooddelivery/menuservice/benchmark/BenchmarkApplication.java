@@ -0,0 +1,43 @@
+package com.fooddelivery.menuservice.benchmark;
+
+import com.fooddelivery.menuservice.MenuServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the real application context (embedded H2 and Redis, no web server)
+ * for benchmarks that exercise wired beans.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {}
+
+    public static ConfigurableApplicationContext start(String... extraProperties) {
+        String[] defaults = {
+                "logging.level.root=WARN",
+                "logging.level.com.fooddelivery=WARN",
+                "logging.level.com.fooddelivery.menuservice.service=WARN",
+                "logging.level.com.fooddelivery.menuservice.controller=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "logging.level.org.springframework.cache=WARN",
+                "logging.level.org.springframework.data.redis=WARN",
+                "logging.file.name=",
+                "spring.jpa.show-sql=false"
+        };
+        // Passed as command-line arguments so they override application.properties
+        String[] args = new String[defaults.length + extraProperties.length];
+        for (int i = 0; i < defaults.length; i++) {
+            args[i] = "--" + defaults[i];
+        }
+        for (int i = 0; i < extraProperties.length; i++) {
+            args[defaults.length + i] = "--" + extraProperties[i];
+        }
+
+        return new SpringApplicationBuilder(MenuServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args);
+    }
+}
@@ -0,0 +1,56 @@
+package com.fooddelivery.menuservice.benchmark;
+
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.fooddelivery.menuservice.entity.MenuItem;
+import com.fooddelivery.menuservice.entity.Restaurant;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic menus of a given size for benchmarks
+ */
+public final class MenuFixtures {
+
+    private static final String[] DISHES = {
+            "Margherita Pizza", "Paneer Butter Masala", "Chicken Biryani", "Masala Dosa",
+            "Veg Hakka Noodles", "Butter Naan", "Gulab Jamun", "Cold Coffee"
+    };
+
+    private MenuFixtures() {}
+
+    public static RestaurantDTO restaurantDTO(int menuSize) {
+        Random random = new Random(menuSize);
+        List<MenuItemDTO> items = new ArrayList<>(menuSize);
+        for (int i = 0; i < menuSize; i++) {
+            items.add(new MenuItemDTO(
+                    new UUID(random.nextLong(), random.nextLong()),
+                    DISHES[i % DISHES.length] + " " + i,
+                    BigDecimal.valueOf(50 + random.nextInt(50_000), 2),
+                    random.nextInt(10) != 0,
+                    random.nextBoolean()));
+        }
+        return new RestaurantDTO(new UUID(random.nextLong(), random.nextLong()),
+                "Benchmark Kitchen " + menuSize, "42 Residency Road, Bengaluru", items);
+    }
+
+    public static Restaurant restaurantEntity(int menuSize) {
+        RestaurantDTO dto = restaurantDTO(menuSize);
+        Restaurant restaurant = new Restaurant(dto.getName(), dto.getAddress());
+        restaurant.setRestaurantId(dto.getRestaurantId());
+
+        List<MenuItem> items = new ArrayList<>(menuSize);
+        for (MenuItemDTO itemDTO : dto.getMenuItems()) {
+            MenuItem item = new MenuItem(restaurant, itemDTO.getName(), itemDTO.getPrice(),
+                    itemDTO.getAvailability(), itemDTO.getVeg());
+            item.setMenuId(itemDTO.getMenuId());
+            items.add(item);
+        }
+        restaurant.setMenuItems(items);
+        return restaurant;
+    }
+}
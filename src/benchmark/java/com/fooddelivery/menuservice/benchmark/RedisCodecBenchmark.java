@@ -0,0 +1,98 @@
+package com.fooddelivery.menuservice.benchmark;
+
+import com.fooddelivery.menuservice.cache.codec.MenuRedisSerializer;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * L2 value encode/decode for each codec, and a SET/GET round trip against the
+ * embedded Redis started by EmbeddedRedisConfig. Bytes per entry are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisCodecBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int menuSize;
+
+    @Param({"json", "binary"})
+    public String codec;
+
+    private ConfigurableApplicationContext context;
+    private MenuRedisSerializer serializer;
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private RestaurantDTO restaurant;
+    private byte[] encoded;
+    private String key;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        int compressionThreshold = context.getEnvironment()
+                .getProperty("cache.redis.compression-threshold", Integer.class, 4096);
+        serializer = new MenuRedisSerializer(MenuRedisSerializer.Codec.valueOf(codec.toUpperCase()),
+                compressionThreshold);
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(context.getBean(RedisConnectionFactory.class));
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(serializer);
+        redisTemplate.afterPropertiesSet();
+
+        restaurant = MenuFixtures.restaurantDTO(menuSize);
+        encoded = serializer.serialize(restaurant);
+        key = "benchmark:menu:" + codec + ":" + menuSize;
+        redisTemplate.opsForValue().set(key, restaurant);
+
+        System.out.printf("%n# codec=%s menuSize=%d bytesPerEntry=%d%n", codec, menuSize, encoded.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redisTemplate.delete(key);
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(restaurant);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    @Benchmark
+    public Object redisGet() {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Benchmark
+    public void redisSet() {
+        redisTemplate.opsForValue().set(key, restaurant, 3600, TimeUnit.SECONDS);
+    }
+}
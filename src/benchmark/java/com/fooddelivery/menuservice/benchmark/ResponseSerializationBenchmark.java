@@ -0,0 +1,67 @@
+package com.fooddelivery.menuservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.menuservice.cache.MenuResponseCache;
+import com.fooddelivery.menuservice.dto.ApiResponse;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full ApiResponse JSON encoding with the application's ObjectMapper,
+ * compared with a pre-encoded body hit from MenuResponseCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int menuSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private MenuResponseCache menuResponseCache;
+    private RestaurantDTO restaurant;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("cache.response-bytes.enabled=true");
+        objectMapper = context.getBean(ObjectMapper.class);
+        menuResponseCache = context.getBean(MenuResponseCache.class);
+        restaurant = MenuFixtures.restaurantDTO(menuSize);
+        menuResponseCache.get(restaurant);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] jacksonApiResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(MenuResponseCache.MENU_RETRIEVED_MESSAGE, restaurant));
+    }
+
+    @Benchmark
+    public byte[] preEncodedResponse() {
+        return menuResponseCache.get(restaurant).getBody();
+    }
+}
@@ -0,0 +1,333 @@
+package com.fooddelivery.menuservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.menuservice.MenuServiceApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for the menu REST API.
+ *
+ * Seeds restaurants through POST /api/v1/restaurants, then drives GET /{id}/menu with
+ * Zipfian key skew and an optional share of restaurant creations, and reports HdrHistogram
+ * latency percentiles, throughput and per-tier hit ratios (from GET /api/v1/cache/stats).
+ *
+ * Arguments are key=value pairs:
+ *   url          target base URL; if absent the application is started in-process on a random port
+ *   restaurants  restaurants to seed (default 1000)
+ *   items        menu items per restaurant (default 20)
+ *   concurrency  worker threads (default 32)
+ *   duration     measured run in seconds (default 30)
+ *   warmup       warmup in seconds, not recorded (default 5)
+ *   theta        Zipfian skew in [0, 1), 0 = uniform (default 0.99)
+ *   writeRatio   share of requests that create a restaurant (default 0.0)
+ *   menuPath     read path suffix after /api/v1/restaurants/{id} (default /menu); a comma-separated
+ *                list (e.g. /menu,/menu/async) measures each path in turn against the same seeded data
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec@load-test -Dloadtest.args="concurrency=64 theta=0.9"
+ */
+public class MenuLoadRunner {
+
+    private static final String API = "/api/v1/restaurants";
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final int restaurants;
+    private final int items;
+    private final int concurrency;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final double theta;
+    private final double writeRatio;
+    private final List<String> menuPaths;
+
+    private final Recorder readLatency = new Recorder(MAX_LATENCY_NANOS, 3);
+    private final Recorder writeLatency = new Recorder(MAX_LATENCY_NANOS, 3);
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder transportErrors = new LongAdder();
+    private final AtomicInteger createdSequence = new AtomicInteger();
+
+    private volatile boolean recording;
+
+    public MenuLoadRunner(String baseUrl, Map<String, String> options) {
+        this.baseUrl = baseUrl;
+        this.restaurants = Integer.parseInt(options.getOrDefault("restaurants", "1000"));
+        this.items = Integer.parseInt(options.getOrDefault("items", "20"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        this.theta = Double.parseDouble(options.getOrDefault("theta", "0.99"));
+        this.writeRatio = Double.parseDouble(options.getOrDefault("writeRatio", "0.0"));
+        this.menuPaths = List.of(options.getOrDefault("menuPath", "/menu").split(","));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("url");
+        if (baseUrl == null) {
+            context = new SpringApplicationBuilder(MenuServiceApplication.class)
+                    .logStartupInfo(false)
+                    .run("--server.port=0",
+                            "--logging.level.root=WARN",
+                            "--logging.level.com.fooddelivery=WARN",
+                            "--logging.level.com.fooddelivery.menuservice.service=WARN",
+                            "--logging.level.com.fooddelivery.menuservice.controller=WARN",
+                            "--logging.level.org.hibernate.SQL=WARN",
+                            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                            "--logging.level.org.springframework.cache=WARN",
+                            "--logging.level.org.springframework.data.redis=WARN",
+                            "--logging.file.name=",
+                            "--spring.jpa.show-sql=false");
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            System.out.println("Started in-process application at " + baseUrl
+                    + " (client and server share this JVM; pass url=... for cleaner numbers)");
+        }
+
+        try {
+            new MenuLoadRunner(baseUrl, options).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    public void run() throws Exception {
+        System.out.printf("Seeding %d restaurants with %d items each...%n", restaurants, items);
+        List<String> restaurantIds = seed();
+        // Shuffle popularity so hot ranks are not correlated with creation order
+        java.util.Collections.shuffle(restaurantIds);
+        ZipfianGenerator keys = new ZipfianGenerator(restaurantIds.size(), theta);
+
+        for (String menuPath : menuPaths) {
+            measure(menuPath, restaurantIds, keys);
+        }
+    }
+
+    private void measure(String menuPath, List<String> restaurantIds, ZipfianGenerator keys) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (running.get()) {
+                    if (writeRatio > 0 && ThreadLocalRandom.current().nextDouble() < writeRatio) {
+                        createRestaurant("loadtest-write-");
+                    } else {
+                        readMenu(restaurantIds.get(keys.next()), menuPath);
+                    }
+                }
+            });
+        }
+
+        System.out.printf("Warming up GET %s for %ds (concurrency=%d, theta=%.2f, writeRatio=%.3f)...%n",
+                menuPath, warmupSeconds, concurrency, theta, writeRatio);
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+
+        Map<String, Long> tiersBefore = tierCounters();
+        readLatency.reset();
+        writeLatency.reset();
+        statusCounts.clear();
+        transportErrors.reset();
+        recording = true;
+        long start = System.nanoTime();
+
+        System.out.printf("Measuring for %ds...%n", durationSeconds);
+        TimeUnit.SECONDS.sleep(durationSeconds);
+
+        recording = false;
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        Histogram reads = readLatency.getIntervalHistogram();
+        Histogram writes = writeLatency.getIntervalHistogram();
+        Map<String, Long> tiersAfter = tierCounters();
+
+        running.set(false);
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+
+        report(menuPath, elapsedSeconds, reads, writes, tiersBefore, tiersAfter);
+    }
+
+    private List<String> seed() throws Exception {
+        List<String> ids = java.util.Collections.synchronizedList(new ArrayList<>(restaurants));
+        ExecutorService seeders = Executors.newFixedThreadPool(Math.min(concurrency, 16));
+        for (int i = 0; i < restaurants; i++) {
+            seeders.execute(() -> {
+                String id = createRestaurant("loadtest-seed-");
+                if (id != null) {
+                    ids.add(id);
+                }
+            });
+        }
+        seeders.shutdown();
+        seeders.awaitTermination(10, TimeUnit.MINUTES);
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No restaurants could be seeded at " + baseUrl);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private String createRestaurant(String namePrefix) {
+        StringBuilder body = new StringBuilder(64 + items * 80);
+        body.append("{\"name\":\"").append(namePrefix).append(ProcessHandle.current().pid()).append('-')
+                .append(createdSequence.incrementAndGet())
+                .append("\",\"address\":\"Load Test Lane\",\"menuItems\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"name\":\"Dish ").append(i)
+                    .append("\",\"price\":").append(50 + i).append(".50")
+                    .append(",\"availability\":").append(i % 10 != 0)
+                    .append(",\"veg\":").append(i % 2 == 0).append('}');
+        }
+        body.append("]}");
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + API))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        HttpResponse<String> response = send(request, writeLatency);
+        if (response == null || response.statusCode() != 201) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(response.body()).path("data").path("restaurantId").asText(null);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void readMenu(String restaurantId, String menuPath) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + API + "/" + restaurantId + menuPath))
+                .GET()
+                .build();
+        send(request, readLatency);
+    }
+
+    private HttpResponse<String> send(HttpRequest request, Recorder latency) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (recording) {
+                latency.recordValue(Math.min(System.nanoTime() - start, MAX_LATENCY_NANOS));
+                statusCounts.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+            }
+            return response;
+        } catch (IOException e) {
+            if (recording) {
+                transportErrors.increment();
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private Map<String, Long> tierCounters() {
+        Map<String, Long> counters = new HashMap<>();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/cache/stats")).GET().build();
+            JsonNode tiers = objectMapper.readTree(
+                    httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body()).path("data").path("tiers");
+            Iterator<Map.Entry<String, JsonNode>> fields = tiers.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getValue().isNumber()) {
+                    counters.put(field.getKey(), field.getValue().asLong());
+                }
+            }
+            counters.put("databaseLoads", tiers.path("database").path("loads").asLong());
+        } catch (IOException e) {
+            System.out.println("Could not read cache stats: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return counters;
+    }
+
+    private void report(String menuPath, double elapsedSeconds, Histogram reads, Histogram writes,
+                        Map<String, Long> tiersBefore, Map<String, Long> tiersAfter) {
+        System.out.println();
+        System.out.println("=== Menu load test ===");
+        System.out.printf("target=%s restaurants=%d items=%d concurrency=%d theta=%.2f writeRatio=%.3f%n",
+                baseUrl, restaurants, items, concurrency, theta, writeRatio);
+        printLatency("GET " + menuPath, reads, elapsedSeconds);
+        if (writes.getTotalCount() > 0) {
+            printLatency("POST", writes, elapsedSeconds);
+        }
+        System.out.printf("status codes: %s, transport errors: %d%n", statusCounts, transportErrors.sum());
+
+        long l1Hits = delta(tiersBefore, tiersAfter, "l1Hits");
+        long l1Misses = delta(tiersBefore, tiersAfter, "l1Misses");
+        long l2Hits = delta(tiersBefore, tiersAfter, "l2Hits");
+        long l2Misses = delta(tiersBefore, tiersAfter, "l2Misses");
+        long databaseLoads = delta(tiersBefore, tiersAfter, "databaseLoads");
+        System.out.printf("L1 hit ratio: %s (%d hits, %d misses)%n", ratio(l1Hits, l1Misses), l1Hits, l1Misses);
+        System.out.printf("L2 hit ratio: %s (%d hits, %d misses)%n", ratio(l2Hits, l2Misses), l2Hits, l2Misses);
+        System.out.printf("DB loads: %d%n", databaseLoads);
+    }
+
+    private static void printLatency(String label, Histogram histogram, double elapsedSeconds) {
+        System.out.printf("%-12s count=%d throughput=%.1f req/s  p50=%.3fms p90=%.3fms p99=%.3fms p999=%.3fms max=%.3fms%n",
+                label,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / elapsedSeconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static long delta(Map<String, Long> before, Map<String, Long> after, String key) {
+        return after.getOrDefault(key, 0L) - before.getOrDefault(key, 0L);
+    }
+
+    private static String ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? "n/a" : String.format("%.2f%%", 100.0 * hits / total);
+    }
+}
@@ -0,0 +1,94 @@
+package com.fooddelivery.menuservice.service;
+
+import com.fooddelivery.menuservice.benchmark.BenchmarkApplication;
+import com.fooddelivery.menuservice.benchmark.MenuFixtures;
+import com.fooddelivery.menuservice.dto.CreateRestaurantRequest;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.fooddelivery.menuservice.repository.MenuItemRepository;
+import com.fooddelivery.menuservice.repository.RestaurantRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database step of a cache miss: the former LEFT JOIN FETCH into managed entities plus
+ * convertToDTO, against the DTO projection queries used now (MenuService.selectMenu). Both
+ * run in the same read-only transaction. Run with -prof gc to compare allocation per load.
+ * Lives in the service package to reach MenuService.convertToDTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuDatabaseLoadBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int menuSize;
+
+    private ConfigurableApplicationContext context;
+    private MenuService menuService;
+    private MenuService menuServiceTarget;
+    private RestaurantRepository restaurantRepository;
+    private MenuItemRepository menuItemRepository;
+    private TransactionTemplate readOnlyTransaction;
+
+    private UUID restaurantId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.jpa.properties.hibernate.generate_statistics=false");
+        menuService = context.getBean(MenuService.class);
+        menuServiceTarget = (MenuService) AopProxyUtils.getSingletonTarget(menuService);
+        restaurantRepository = context.getBean(RestaurantRepository.class);
+        menuItemRepository = context.getBean(MenuItemRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        RestaurantDTO fixture = MenuFixtures.restaurantDTO(menuSize);
+        restaurantId = menuService.addRestaurantWithMenu(new CreateRestaurantRequest(
+                fixture.getName(), fixture.getAddress(), fixture.getMenuItems())).getRestaurantId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RestaurantDTO joinFetchEntities() {
+        return readOnlyTransaction.execute(status -> restaurantRepository
+                .findByIdWithMenuItems(restaurantId)
+                .map(menuServiceTarget::convertToDTO)
+                .orElse(null));
+    }
+
+    @Benchmark
+    public RestaurantDTO dtoProjection() {
+        return readOnlyTransaction.execute(status -> restaurantRepository
+                .findMenuHeaderById(restaurantId)
+                .map(restaurant -> {
+                    restaurant.setMenuItems(menuItemRepository.findMenuItemDTOsByRestaurantId(restaurantId));
+                    return restaurant;
+                })
+                .orElse(null));
+    }
+}
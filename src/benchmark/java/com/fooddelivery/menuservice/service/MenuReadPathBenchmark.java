@@ -0,0 +1,88 @@
+package com.fooddelivery.menuservice.service;
+
+import com.fooddelivery.menuservice.benchmark.BenchmarkApplication;
+import com.fooddelivery.menuservice.benchmark.MenuFixtures;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.fooddelivery.menuservice.entity.Restaurant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO conversion and the L1 (Caffeine) get/put path.
+ * Lives in the service package to reach MenuService.convertToDTO, which is called on the
+ * unproxied bean so the measurement does not include opening a transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuReadPathBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int menuSize;
+
+    private ConfigurableApplicationContext context;
+    private MenuService menuService;
+    private MenuService menuServiceTarget;
+    private CacheService cacheService;
+
+    private Restaurant restaurantEntity;
+    private RestaurantDTO restaurant;
+    private UUID restaurantId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        menuService = context.getBean(MenuService.class);
+        menuServiceTarget = (MenuService) AopProxyUtils.getSingletonTarget(menuService);
+        cacheService = context.getBean(CacheService.class);
+
+        restaurantEntity = MenuFixtures.restaurantEntity(menuSize);
+        restaurant = menuServiceTarget.convertToDTO(restaurantEntity);
+        restaurantId = restaurant.getRestaurantId();
+        cacheService.updateL1Cache(restaurantId, restaurant);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RestaurantDTO convertToDTO() {
+        return menuServiceTarget.convertToDTO(restaurantEntity);
+    }
+
+    @Benchmark
+    public RestaurantDTO l1Get() {
+        return cacheService.getFromL1Cache(restaurantId);
+    }
+
+    @Benchmark
+    public void l1Put() {
+        cacheService.updateL1Cache(restaurantId, restaurant);
+    }
+
+    @Benchmark
+    public RestaurantDTO getRestaurantMenuL1Hit() {
+        return menuService.getRestaurantMenu(restaurantId);
+    }
+}
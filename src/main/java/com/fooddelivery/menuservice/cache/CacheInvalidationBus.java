@@ -0,0 +1,371 @@
+package com.fooddelivery.menuservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cross-node L1 invalidation over Redis pub/sub.
+ *
+ * Restaurant IDs are collected for a short batch window, de-duplicated and published
+ * as one message. Every message carries a sequence number taken from a Redis counter
+ * in the same Lua call as the PUBLISH, so receivers can tell when they missed one:
+ * a heartbeat compares the counter with the sequences actually received and flushes
+ * the whole local L1 on a gap (or when the counter went backwards, e.g. Redis restarted).
+ *
+ * The same channel announces newly created restaurant IDs (kind C) so that every node's
+ * known-ID filter learns about them.
+ *
+ * Message format: {@code seq|nodeId|kind|id,id,...} where kind is I (invalidate) or C (created)
+ */
+@Component
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final String SEQUENCE_KEY = "restaurant:menu:invalidations:seq";
+    private static final String KIND_INVALIDATE = "I";
+    private static final String KIND_CREATED = "C";
+    private static final int MAX_TRACKED_OUT_OF_ORDER = 10_000;
+
+    private static final RedisScript<Long> PUBLISH_SCRIPT = new DefaultRedisScript<>(
+            "local seq = redis.call('INCR', KEYS[1]) " +
+            "redis.call('PUBLISH', ARGV[1], seq .. '|' .. ARGV[2]) " +
+            "return seq",
+            Long.class);
+
+    /**
+     * Receives invalidations and creations published by other nodes
+     */
+    public interface Listener {
+        void onInvalidate(Collection<UUID> restaurantIds);
+
+        // Messages may have been missed: drop everything derived from them
+        void onInvalidateAll(String reason);
+
+        void onCreated(Collection<UUID> restaurantIds);
+    }
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.channel:restaurant:menu:invalidations}")
+    private String channel;
+
+    @Value("${cache.invalidation.batch-window:5ms}")
+    private Duration batchWindow;
+
+    @Value("${cache.invalidation.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${cache.invalidation.heartbeat-interval:1s}")
+    private Duration heartbeatInterval;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<UUID> pendingIds = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pendingCreatedIds = ConcurrentHashMap.newKeySet();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    // Sequence tracking, guarded by this
+    private boolean sequenceInitialized;
+    private long highestContiguousSeq;
+    private long counterAtLastHeartbeat;
+    private final TreeSet<Long> outOfOrderSeqs = new TreeSet<>();
+
+    private final LongAdder messagesPublished = new LongAdder();
+    private final LongAdder idsPublished = new LongAdder();
+    private final LongAdder publishFailures = new LongAdder();
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder idsInvalidated = new LongAdder();
+    private final LongAdder idsCreated = new LongAdder();
+    private final LongAdder gapsDetected = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Cache invalidation bus disabled");
+            return;
+        }
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        initializeSequence(false);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushSafely,
+                batchWindow.toMillis(), Math.max(1, batchWindow.toMillis()), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeatSafely,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Cache invalidation bus started on channel '{}' as node {}", channel, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            flushSafely();
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Queue a restaurant for invalidation on all other nodes
+     */
+    public void publish(UUID restaurantId) {
+        if (enabled) {
+            pendingIds.add(restaurantId);
+        }
+    }
+
+    /**
+     * Queue a newly created restaurant for announcement to all other nodes
+     */
+    public void publishCreated(UUID restaurantId) {
+        if (enabled) {
+            pendingCreatedIds.add(restaurantId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 4);
+        if (parts.length != 4) {
+            logger.warn("Ignoring malformed invalidation message: {}", body);
+            return;
+        }
+        messagesReceived.increment();
+
+        long seq;
+        try {
+            seq = Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring invalidation message with bad sequence: {}", body);
+            return;
+        }
+        markSeen(seq);
+
+        boolean created = KIND_CREATED.equals(parts[2]);
+        if (nodeId.equals(parts[1]) || !(created || KIND_INVALIDATE.equals(parts[2]))) {
+            return;
+        }
+
+        List<UUID> restaurantIds = new ArrayList<>();
+        for (String id : parts[3].split(",")) {
+            try {
+                restaurantIds.add(UUID.fromString(id));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring invalid restaurant ID in invalidation message: {}", id);
+            }
+        }
+        if (created) {
+            idsCreated.add(restaurantIds.size());
+            logger.debug("{} restaurants created on node {} (seq {})", restaurantIds.size(), parts[1], seq);
+            for (Listener listener : listeners) {
+                listener.onCreated(restaurantIds);
+            }
+            return;
+        }
+        idsInvalidated.add(restaurantIds.size());
+        logger.debug("Invalidating {} L1 entries from node {} (seq {})", restaurantIds.size(), parts[1], seq);
+        for (Listener listener : listeners) {
+            listener.onInvalidate(restaurantIds);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("nodeId", nodeId);
+        stats.put("messagesPublished", messagesPublished.sum());
+        stats.put("idsPublished", idsPublished.sum());
+        stats.put("publishFailures", publishFailures.sum());
+        stats.put("pendingIds", pendingIds.size() + pendingCreatedIds.size());
+        stats.put("messagesReceived", messagesReceived.sum());
+        stats.put("idsInvalidated", idsInvalidated.sum());
+        stats.put("idsCreated", idsCreated.sum());
+        stats.put("gapsDetected", gapsDetected.sum());
+        synchronized (this) {
+            stats.put("lastContiguousSeq", highestContiguousSeq);
+        }
+        return stats;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Error flushing cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        flush(pendingCreatedIds, KIND_CREATED);
+        flush(pendingIds, KIND_INVALIDATE);
+    }
+
+    private void flush(Set<UUID> pending, String kind) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<UUID> batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+        Iterator<UUID> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() == maxBatchSize || !iterator.hasNext()) {
+                send(batch, kind, pending);
+                batch = new ArrayList<>();
+            }
+        }
+    }
+
+    private void send(List<UUID> batch, String kind, Set<UUID> pending) {
+        StringBuilder payload = new StringBuilder(nodeId.length() + 3 + batch.size() * 37);
+        payload.append(nodeId).append('|').append(kind).append('|');
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                payload.append(',');
+            }
+            payload.append(batch.get(i));
+        }
+        try {
+            stringRedisTemplate.execute(PUBLISH_SCRIPT, List.of(SEQUENCE_KEY), channel, payload.toString());
+            messagesPublished.increment();
+            idsPublished.add(batch.size());
+        } catch (Exception e) {
+            // Keep the IDs queued; the next flush retries them
+            publishFailures.increment();
+            pending.addAll(batch);
+            logger.error("Error publishing {} cache invalidations: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private synchronized void markSeen(long seq) {
+        if (!sequenceInitialized || seq <= highestContiguousSeq) {
+            return;
+        }
+        outOfOrderSeqs.add(seq);
+        while (outOfOrderSeqs.remove(highestContiguousSeq + 1)) {
+            highestContiguousSeq++;
+        }
+        if (outOfOrderSeqs.size() > MAX_TRACKED_OUT_OF_ORDER) {
+            resetSequence(outOfOrderSeqs.last(), "too many out-of-order invalidation messages");
+        }
+    }
+
+    private void heartbeatSafely() {
+        try {
+            heartbeat();
+        } catch (Exception e) {
+            logger.debug("Invalidation heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Any sequence that was already issued at the previous heartbeat must have been
+     * delivered by now; if it was not, L1 may hold entries that were invalidated elsewhere.
+     */
+    private void heartbeat() {
+        if (!sequenceInitialized) {
+            initializeSequence(true);
+            return;
+        }
+        long counter = readCounter();
+        synchronized (this) {
+            if (counter < highestContiguousSeq) {
+                resetSequence(counter, "invalidation sequence went backwards (Redis restarted or flushed)");
+            } else if (counterAtLastHeartbeat > highestContiguousSeq) {
+                resetSequence(counter, "missed invalidation messages up to seq " + counterAtLastHeartbeat);
+            }
+            counterAtLastHeartbeat = counter;
+        }
+    }
+
+    private void initializeSequence(boolean flushLocal) {
+        try {
+            long counter = readCounter();
+            synchronized (this) {
+                highestContiguousSeq = counter;
+                counterAtLastHeartbeat = counter;
+                outOfOrderSeqs.clear();
+                sequenceInitialized = true;
+            }
+            if (flushLocal) {
+                // Redis was unreachable at startup, so invalidations may have been missed meanwhile
+                notifyInvalidateAll("invalidation bus connected late");
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read invalidation sequence, will retry on heartbeat: {}", e.getMessage());
+        }
+    }
+
+    // Caller holds the monitor
+    private void resetSequence(long seq, String reason) {
+        gapsDetected.increment();
+        highestContiguousSeq = seq;
+        outOfOrderSeqs.headSet(seq, true).clear();
+        while (outOfOrderSeqs.remove(highestContiguousSeq + 1)) {
+            highestContiguousSeq++;
+        }
+        logger.warn("Flushing local L1 cache: {}", reason);
+        notifyInvalidateAll(reason);
+    }
+
+    private void notifyInvalidateAll(String reason) {
+        for (Listener listener : listeners) {
+            listener.onInvalidateAll(reason);
+        }
+    }
+
+    private long readCounter() {
+        String value = stringRedisTemplate.opsForValue().get(SEQUENCE_KEY);
+        return value == null ? 0L : Long.parseLong(value);
+    }
+}
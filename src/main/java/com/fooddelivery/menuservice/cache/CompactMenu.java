@@ -0,0 +1,339 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.github.benmanes.caffeine.cache.Interner;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Immutable, columnar form of a menu as held in L1.
+ *
+ * Instead of one MenuItemDTO (plus UUID, BigDecimal and name String) per item, the items
+ * are parallel arrays: the two halves of each item ID, the price as an unscaled long and its
+ * scale, and bitsets for veg and availability. Item names are interned across all cached
+ * menus, so the same dish name is held once.
+ *
+ * CacheService converts menus to this form when writing L1 and hands out toRestaurantDTO()
+ * on reads: one RestaurantDTO per compact menu whose item list is a read-only view creating
+ * item DTOs on access. JSON for that list is written straight from the columns by JsonWriter;
+ * views are detached into plain DTOs before they are written to L2.
+ */
+public final class CompactMenu {
+
+    private static final Interner<String> ITEM_NAMES = Interner.newWeakInterner();
+    private static final int MAX_SCALE = 9;
+
+    private final UUID restaurantId;
+    private final String name;
+    private final String address;
+    private final long[] itemIdMost;
+    private final long[] itemIdLeast;
+    private final String[] itemNames;
+    private final long[] unscaledPrices;
+    private final byte[] priceScales;
+    private final BitSet veg;
+    private final BitSet available;
+    private final RestaurantDTO restaurant;
+
+    private CompactMenu(UUID restaurantId, String name, String address, long[] itemIdMost, long[] itemIdLeast,
+                        String[] itemNames, long[] unscaledPrices, byte[] priceScales, BitSet veg, BitSet available) {
+        this.restaurantId = restaurantId;
+        this.name = name;
+        this.address = address;
+        this.itemIdMost = itemIdMost;
+        this.itemIdLeast = itemIdLeast;
+        this.itemNames = itemNames;
+        this.unscaledPrices = unscaledPrices;
+        this.priceScales = priceScales;
+        this.veg = veg;
+        this.available = available;
+        this.restaurant = new RestaurantDTO(restaurantId, name, address, new Items(this));
+    }
+
+    /**
+     * The compact form of a menu, or null if it cannot be represented exactly: an item with
+     * a missing field, or a price with a scale outside 0-9 or too many digits for a long.
+     */
+    public static CompactMenu from(RestaurantDTO restaurant) {
+        CompactMenu backing = backing(restaurant);
+        if (backing != null) {
+            return backing;
+        }
+        List<MenuItemDTO> items = restaurant.getMenuItems();
+        if (restaurant.getRestaurantId() == null || items == null) {
+            return null;
+        }
+
+        int size = items.size();
+        long[] itemIdMost = new long[size];
+        long[] itemIdLeast = new long[size];
+        String[] itemNames = new String[size];
+        long[] unscaledPrices = new long[size];
+        byte[] priceScales = new byte[size];
+        BitSet veg = new BitSet(size);
+        BitSet available = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            MenuItemDTO item = items.get(i);
+            if (item.getMenuId() == null || item.getName() == null || item.getPrice() == null
+                    || item.getAvailability() == null || item.getVeg() == null) {
+                return null;
+            }
+            BigDecimal price = item.getPrice();
+            if (price.scale() < 0 || price.scale() > MAX_SCALE || price.unscaledValue().bitLength() > 63) {
+                return null;
+            }
+            itemIdMost[i] = item.getMenuId().getMostSignificantBits();
+            itemIdLeast[i] = item.getMenuId().getLeastSignificantBits();
+            itemNames[i] = ITEM_NAMES.intern(item.getName());
+            unscaledPrices[i] = price.unscaledValue().longValue();
+            priceScales[i] = (byte) price.scale();
+            veg.set(i, item.getVeg());
+            available.set(i, item.getAvailability());
+        }
+        return new CompactMenu(restaurant.getRestaurantId(), restaurant.getName(), restaurant.getAddress(),
+                itemIdMost, itemIdLeast, itemNames, unscaledPrices, priceScales, veg, available);
+    }
+
+    /**
+     * The compact menu behind a DTO returned by toRestaurantDTO(), or null for any other DTO
+     * (including a view whose fields have since been replaced)
+     */
+    public static CompactMenu backing(RestaurantDTO restaurant) {
+        if (restaurant.getMenuItems() instanceof Items items) {
+            CompactMenu menu = items.menu;
+            if (Objects.equals(restaurant.getRestaurantId(), menu.restaurantId)
+                    && Objects.equals(restaurant.getName(), menu.name)
+                    && Objects.equals(restaurant.getAddress(), menu.address)) {
+                return menu;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The menu as a RestaurantDTO: the same instance on every call, with a read-only item list
+     * backed by this menu
+     */
+    public RestaurantDTO toRestaurantDTO() {
+        return restaurant;
+    }
+
+    /**
+     * The DTO itself, or for a compact view a plain copy with its own ArrayList of items, for
+     * serializers that record runtime types (GenericJackson2JsonRedisSerializer)
+     */
+    public static RestaurantDTO detach(RestaurantDTO restaurant) {
+        if (!(restaurant.getMenuItems() instanceof Items items)) {
+            return restaurant;
+        }
+        return new RestaurantDTO(restaurant.getRestaurantId(), restaurant.getName(), restaurant.getAddress(),
+                new ArrayList<>(items));
+    }
+
+    /**
+     * A menu holding only the selected items (indexes into this menu), sharing the interned names
+     */
+    public CompactMenu select(BitSet selected) {
+        int size = selected.cardinality();
+        long[] most = new long[size];
+        long[] least = new long[size];
+        String[] names = new String[size];
+        long[] prices = new long[size];
+        byte[] scales = new byte[size];
+        BitSet selectedVeg = new BitSet(size);
+        BitSet selectedAvailable = new BitSet(size);
+        int j = 0;
+        for (int i = selected.nextSetBit(0); i >= 0 && i < itemNames.length; i = selected.nextSetBit(i + 1), j++) {
+            most[j] = itemIdMost[i];
+            least[j] = itemIdLeast[i];
+            names[j] = itemNames[i];
+            prices[j] = unscaledPrices[i];
+            scales[j] = priceScales[i];
+            selectedVeg.set(j, veg.get(i));
+            selectedAvailable.set(j, available.get(i));
+        }
+        return new CompactMenu(restaurantId, name, address, most, least, names, prices, scales,
+                selectedVeg, selectedAvailable);
+    }
+
+    public UUID getRestaurantId() {
+        return restaurantId;
+    }
+
+    public int size() {
+        return itemNames.length;
+    }
+
+    // Read-only bitsets for MenuFilterIndex; callers must not modify them
+    BitSet vegBits() {
+        return veg;
+    }
+
+    BitSet availableBits() {
+        return available;
+    }
+
+    /**
+     * Estimated retained heap size in bytes, on the same assumptions as MenuWeigher. Interned
+     * names are counted in full although they may be shared with other menus.
+     */
+    public long retainedSize() {
+        int items = itemNames.length;
+        // Own fields, the RestaurantDTO view (sharing the ID, name and address) and its item list
+        long size = MenuWeigher.align(12 + 11 * 4) + MenuWeigher.align(12 + 4 * 4) + MenuWeigher.align(12 + 4 + 4)
+                + MenuWeigher.sizeOf(restaurantId) + MenuWeigher.sizeOf(name) + MenuWeigher.sizeOf(address)
+                + 3 * MenuWeigher.align(16 + 8L * items)
+                + MenuWeigher.align(16 + 4L * items)
+                + MenuWeigher.align(16 + (long) items)
+                + 2 * (MenuWeigher.align(12 + 4 + 4 + 1) + MenuWeigher.align(16 + 8L * ((items + 63) / 64)));
+        for (String itemName : itemNames) {
+            size += MenuWeigher.sizeOf(itemName);
+        }
+        return size;
+    }
+
+    private MenuItemDTO item(int index) {
+        return new MenuItemDTO(new UUID(itemIdMost[index], itemIdLeast[index]), itemNames[index],
+                BigDecimal.valueOf(unscaledPrices[index], priceScales[index]), available.get(index), veg.get(index));
+    }
+
+    // Item list of the RestaurantDTO view; read-only, as the columns are shared between requests
+    @JsonSerialize(using = JsonWriter.class)
+    private static final class Items extends AbstractList<MenuItemDTO> implements RandomAccess {
+
+        private final CompactMenu menu;
+
+        private Items(CompactMenu menu) {
+            this.menu = menu;
+        }
+
+        @Override
+        public MenuItemDTO get(int index) {
+            Objects.checkIndex(index, menu.itemNames.length);
+            return menu.item(index);
+        }
+
+        @Override
+        public int size() {
+            return menu.itemNames.length;
+        }
+    }
+
+    /**
+     * Writes the item list in RestaurantDTO's JSON shape directly from the columns: field names
+     * are pre-encoded, and UUIDs and prices are formatted into one scratch buffer per list. Each
+     * price keeps its own scale, as BigDecimal would write it.
+     */
+    static final class JsonWriter extends StdSerializer<Items> {
+
+        private static final SerializableString MENU_ID = new SerializedString("menuId");
+        private static final SerializableString NAME = new SerializedString("name");
+        private static final SerializableString PRICE = new SerializedString("price");
+        private static final SerializableString AVAILABILITY = new SerializedString("availability");
+        private static final SerializableString VEG = new SerializedString("veg");
+        private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+        JsonWriter() {
+            super(Items.class);
+        }
+
+        @Override
+        public void serialize(Items items, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            CompactMenu menu = items.menu;
+            char[] buffer = new char[40];
+            gen.writeStartArray(items, menu.itemNames.length);
+            for (int i = 0; i < menu.itemNames.length; i++) {
+                gen.writeStartObject();
+                gen.writeFieldName(MENU_ID);
+                writeUuid(gen, buffer, menu.itemIdMost[i], menu.itemIdLeast[i]);
+                gen.writeFieldName(NAME);
+                gen.writeString(menu.itemNames[i]);
+                gen.writeFieldName(PRICE);
+                writePrice(gen, buffer, menu.unscaledPrices[i], menu.priceScales[i]);
+                gen.writeFieldName(AVAILABILITY);
+                gen.writeBoolean(menu.available.get(i));
+                gen.writeFieldName(VEG);
+                gen.writeBoolean(menu.veg.get(i));
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+
+        /**
+         * With type information (GenericJackson2JsonRedisSerializer) the items are written as a
+         * plain ArrayList of item DTOs, which is what reading the JSON back produces
+         */
+        @Override
+        public void serializeWithType(Items items, JsonGenerator gen, SerializerProvider provider,
+                                      TypeSerializer typeSer) throws IOException {
+            WritableTypeId typeId = typeSer.typeId(items, JsonToken.START_ARRAY);
+            typeId.id = typeSer.getTypeIdResolver().idFromValue(new ArrayList<>(0));
+            typeSer.writeTypePrefix(gen, typeId);
+            JsonSerializer<Object> itemSerializer = provider.findTypedValueSerializer(MenuItemDTO.class, true, null);
+            for (MenuItemDTO item : items) {
+                itemSerializer.serialize(item, gen, provider);
+            }
+            typeSer.writeTypeSuffix(gen, typeId);
+        }
+
+        private static void writeUuid(JsonGenerator gen, char[] buffer, long most, long least) throws IOException {
+            hex(buffer, 0, most >>> 32, 8);
+            buffer[8] = '-';
+            hex(buffer, 9, most >>> 16, 4);
+            buffer[13] = '-';
+            hex(buffer, 14, most, 4);
+            buffer[18] = '-';
+            hex(buffer, 19, least >>> 48, 4);
+            buffer[23] = '-';
+            hex(buffer, 24, least, 12);
+            gen.writeString(buffer, 0, 36);
+        }
+
+        private static void hex(char[] buffer, int offset, long value, int digits) {
+            for (int i = digits - 1; i >= 0; i--) {
+                buffer[offset + i] = HEX[(int) (value & 0xF)];
+                value >>>= 4;
+            }
+        }
+
+        // Plain decimal text of unscaled * 10^-scale, e.g. 1299 at scale 2 is 12.99
+        private static void writePrice(JsonGenerator gen, char[] buffer, long unscaled, int scale) throws IOException {
+            int end = buffer.length;
+            int position = end;
+            boolean negative = unscaled < 0;
+            int digits = 0;
+            do {
+                long digit = Math.abs(unscaled % 10);
+                unscaled /= 10;
+                if (digits == scale && scale > 0) {
+                    buffer[--position] = '.';
+                }
+                buffer[--position] = (char) ('0' + digit);
+                digits++;
+            } while (unscaled != 0 || digits <= scale);
+            if (negative) {
+                buffer[--position] = '-';
+            }
+            gen.writeNumber(buffer, position, end - position);
+        }
+    }
+}
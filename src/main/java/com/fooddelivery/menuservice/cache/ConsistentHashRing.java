@@ -0,0 +1,130 @@
+package com.fooddelivery.menuservice.cache;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Consistent hash ring over named nodes, each placed at virtualNodes points.
+ *
+ * A key belongs to the node of the first point at or after its hash, wrapping around. Points
+ * depend only on node names, so every process with the same node list routes the same way,
+ * and adding or removing a node only moves the keys on the arcs it takes or gives up (about
+ * 1/N of them). Nodes are identified by their index in the list given.
+ */
+public final class ConsistentHashRing {
+
+    private static final double HASH_SPACE = 0x1p64;
+
+    private final int nodeCount;
+    // Ring positions in ascending order, and the node index owning each
+    private final long[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A hash ring needs at least one node and one virtual node per node");
+        }
+        if (new HashSet<>(nodes).size() != nodes.size()) {
+            throw new IllegalArgumentException("Duplicate hash ring nodes: " + nodes);
+        }
+        TreeMap<Long, Integer> ring = new TreeMap<>();
+        for (int node = 0; node < nodes.size(); node++) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // A colliding point keeps its first owner; with 64-bit hashes this does not happen in practice
+                ring.putIfAbsent(hash(nodes.get(node) + "#" + i), node);
+            }
+        }
+        nodeCount = nodes.size();
+        points = new long[ring.size()];
+        owners = new int[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> point : ring.entrySet()) {
+            points[i] = point.getKey();
+            owners[i] = point.getValue();
+            i++;
+        }
+    }
+
+    public int size() {
+        return nodeCount;
+    }
+
+    // The node a key belongs to
+    public int nodeFor(String key) {
+        return owners[pointIndex(hash(key))];
+    }
+
+    // The first node clockwise from the key that is available, or the key's own node if none is
+    public int nodeFor(String key, IntPredicate available) {
+        int start = pointIndex(hash(key));
+        for (int i = 0; i < points.length; i++) {
+            int node = owners[(start + i) % points.length];
+            if (available.test(node)) {
+                return node;
+            }
+        }
+        return owners[start];
+    }
+
+    // The first count distinct nodes clockwise from the key, in ring order
+    public int[] nodesFor(String key, int count) {
+        int[] nodes = new int[Math.min(count, nodeCount)];
+        int found = 0;
+        int start = pointIndex(hash(key));
+        for (int i = 0; i < points.length && found < nodes.length; i++) {
+            int node = owners[(start + i) % points.length];
+            boolean seen = false;
+            for (int j = 0; j < found; j++) {
+                seen |= nodes[j] == node;
+            }
+            if (!seen) {
+                nodes[found++] = node;
+            }
+        }
+        return nodes;
+    }
+
+    // Share of the hash space owned by the node, i.e. the expected share of keys
+    public double share(int node) {
+        double owned = 0;
+        for (int i = 0; i < points.length; i++) {
+            if (owners[i] == node) {
+                // Arc from the previous point, modulo 2^64 (the first arc wraps around)
+                long arc = points[i] - points[(i + points.length - 1) % points.length];
+                owned += points.length == 1 ? HASH_SPACE : unsigned(arc);
+            }
+        }
+        return owned / HASH_SPACE;
+    }
+
+    private int pointIndex(long hash) {
+        int i = Arrays.binarySearch(points, hash);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return i == points.length ? 0 : i;
+    }
+
+    // FNV-1a over the key's chars, then the MurmurHash3 finalizer to spread similar keys
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static double unsigned(long value) {
+        return value >= 0 ? value : HASH_SPACE + value;
+    }
+}
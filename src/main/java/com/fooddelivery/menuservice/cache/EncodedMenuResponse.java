@@ -0,0 +1,58 @@
+package com.fooddelivery.menuservice.cache;
+
+/**
+ * Fully encoded GET /{restaurantId}/menu response body, with an optional gzip variant
+ * and strong ETags for each representation.
+ */
+public class EncodedMenuResponse {
+
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String eTag;
+    private final String gzipETag;
+
+    public EncodedMenuResponse(byte[] body, byte[] gzipBody, String eTag) {
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.eTag = "\"" + eTag + "\"";
+        this.gzipETag = "\"" + eTag + "-gzip\"";
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public String getGzipETag() {
+        return gzipETag;
+    }
+
+    /**
+     * True if an If-None-Match header names either representation of this body
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag) || tag.equals(gzipETag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,265 @@
+package com.fooddelivery.menuservice.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming heavy-hitter detection over single-menu reads.
+ *
+ * A sampled share of reads (cache.hot-keys.sample-rate) is counted in a Count-Min sketch.
+ * Restaurants whose estimate reaches the smallest count in a bounded candidate table are kept
+ * there. Every cache.hot-keys.window the sketch, the candidates and the total are halved, so
+ * counts decay exponentially and a promotion that has ended stops counting within a few
+ * windows. The hot set is then recomputed: the top-k candidates with at least min-share of the
+ * decayed reads and at least min-samples samples. Listeners hear which restaurants became hot
+ * and which cooled down.
+ *
+ * Recording is lock-free: one random draw and, for a sampled read, DEPTH atomic increments.
+ * Sampling also keeps the sketch counters of a very hot key from being written on every read.
+ */
+@Component
+public class HotKeyTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyTracker.class);
+
+    private static final int DEPTH = 4;
+    // Candidates kept per hot key, so keys on the way up are already tracked
+    private static final int CANDIDATES_PER_KEY = 4;
+
+    public interface Listener {
+        void onHotKeysChanged(Set<UUID> heated, Set<UUID> cooled);
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.hot-keys.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.hot-keys.top-k:16}")
+    private int topK;
+
+    @Value("${cache.hot-keys.sample-rate:0.1}")
+    private double sampleRate;
+
+    @Value("${cache.hot-keys.min-share:0.01}")
+    private double minShare;
+
+    @Value("${cache.hot-keys.min-samples:20}")
+    private long minSamples;
+
+    @Value("${cache.hot-keys.window:10s}")
+    private Duration window;
+
+    @Value("${cache.hot-keys.sketch-width:4096}")
+    private int sketchWidth;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // DEPTH rows of width counters; halved non-atomically at each window, a lost increment is harmless
+    private AtomicLongArray sketch;
+    private int widthMask;
+    private int candidateCapacity;
+    private final Map<UUID, Long> candidates = new ConcurrentHashMap<>();
+    private volatile long candidateFloor;
+
+    private final LongAdder windowSamples = new LongAdder();
+    private volatile long decayedTotal;
+    private volatile Set<UUID> hotKeys = Set.of();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        int width = Integer.highestOneBit(Math.max(64, sketchWidth - 1) << 1);
+        widthMask = width - 1;
+        sketch = new AtomicLongArray(DEPTH * width);
+        candidateCapacity = Math.max(1, topK) * CANDIDATES_PER_KEY;
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("menu.cache.hot.keys", this, tracker -> tracker.hotKeys.size())
+                .description("Restaurants currently detected as hot keys")
+                .register(meterRegistry);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-key-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rotateWindow,
+                window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public boolean isHot(UUID restaurantId) {
+        return hotKeys.contains(restaurantId);
+    }
+
+    // Count one read of the restaurant's menu (sampled)
+    public void record(UUID restaurantId) {
+        if (!enabled || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        windowSamples.increment();
+        long hash = mix(restaurantId.getMostSignificantBits() ^ restaurantId.getLeastSignificantBits());
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, sketch.incrementAndGet(slot(hash, row)));
+        }
+        if (estimate >= candidateFloor || candidates.containsKey(restaurantId)) {
+            candidates.put(restaurantId, estimate);
+            if (candidates.size() > 2 * candidateCapacity) {
+                trimCandidates();
+            }
+        }
+    }
+
+    /**
+     * The most read restaurants, by decayed sampled reads, hottest first
+     */
+    public List<Map<String, Object>> getTopKeys(int limit) {
+        long total = Math.max(1, decayedTotal + windowSamples.sum());
+        List<Map.Entry<UUID, Long>> ranked = new ArrayList<>(candidates.entrySet());
+        ranked.sort(Map.Entry.<UUID, Long>comparingByValue().reversed());
+
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (Map.Entry<UUID, Long> candidate : ranked) {
+            if (top.size() >= limit) {
+                break;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("restaurantId", candidate.getKey());
+            entry.put("estimatedReads", Math.round(candidate.getValue() / sampleRate));
+            entry.put("share", (double) candidate.getValue() / total);
+            entry.put("hot", hotKeys.contains(candidate.getKey()));
+            top.add(entry);
+        }
+        return top;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("topK", topK);
+        stats.put("sampleRate", sampleRate);
+        stats.put("minShare", minShare);
+        stats.put("windowMillis", window.toMillis());
+        stats.put("hotKeys", hotKeys.size());
+        stats.put("candidates", candidates.size());
+        stats.put("decayedSamples", decayedTotal + windowSamples.sum());
+        return stats;
+    }
+
+    // Close the window: pick the hot set from the counts so far, then halve every count
+    private void rotateWindow() {
+        try {
+            long total = decayedTotal + windowSamples.sumThenReset();
+            long threshold = Math.max(minSamples, (long) Math.ceil(minShare * total));
+
+            List<Map.Entry<UUID, Long>> ranked = new ArrayList<>(candidates.entrySet());
+            ranked.sort(Map.Entry.<UUID, Long>comparingByValue().reversed());
+            Set<UUID> hot = new HashSet<>();
+            for (Map.Entry<UUID, Long> candidate : ranked) {
+                if (hot.size() >= topK || candidate.getValue() < threshold) {
+                    break;
+                }
+                hot.add(candidate.getKey());
+            }
+
+            decayedTotal = total >> 1;
+            for (int i = 0; i < sketch.length(); i++) {
+                sketch.set(i, sketch.get(i) >> 1);
+            }
+            candidates.replaceAll((restaurantId, count) -> count >> 1);
+            candidates.values().removeIf(count -> count == 0);
+            trimCandidates();
+
+            Set<UUID> previous = hotKeys;
+            hotKeys = Set.copyOf(hot);
+            Set<UUID> heated = new HashSet<>(hot);
+            heated.removeAll(previous);
+            Set<UUID> cooled = new HashSet<>(previous);
+            cooled.removeAll(hot);
+            if (!heated.isEmpty() || !cooled.isEmpty()) {
+                logger.info("Hot keys: {} (+{} -{}) of {} sampled reads, threshold {}",
+                        hot.size(), heated.size(), cooled.size(), total, threshold);
+                for (Listener listener : listeners) {
+                    listener.onHotKeysChanged(heated, cooled);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Hot key window rotation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Keep the candidateCapacity largest counts; later keys must reach the smallest to enter
+    private synchronized void trimCandidates() {
+        if (candidates.size() <= candidateCapacity) {
+            candidateFloor = candidates.size() < candidateCapacity ? 0
+                    : candidates.values().stream().mapToLong(Long::longValue).min().orElse(0);
+            return;
+        }
+        List<Map.Entry<UUID, Long>> ranked = new ArrayList<>(candidates.entrySet());
+        ranked.sort(Map.Entry.<UUID, Long>comparingByValue().reversed());
+        for (Map.Entry<UUID, Long> candidate : ranked.subList(candidateCapacity, ranked.size())) {
+            candidates.remove(candidate.getKey());
+        }
+        candidateFloor = ranked.get(candidateCapacity - 1).getValue();
+    }
+
+    // Double hashing over the two halves of the mixed hash
+    private int slot(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+    }
+
+    // MurmurHash3 finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
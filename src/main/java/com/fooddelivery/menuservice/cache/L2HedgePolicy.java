@@ -0,0 +1,123 @@
+package com.fooddelivery.menuservice.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedge delay for single-menu L2 reads.
+ *
+ * With cache.redis.hedge.enabled, a read that has not answered from Redis within the
+ * delay is abandoned and the menu is loaded from the database instead (coalesced with
+ * other loads of the same restaurant). The delay is the configured percentile of the
+ * latest window-size successful L2 GET latencies, recomputed at most once per
+ * recompute-interval and clamped to [min-delay, max-delay]; until the window has filled
+ * once, max-delay is used.
+ */
+@Component
+public class L2HedgePolicy {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.redis.hedge.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cache.redis.hedge.percentile:0.95}")
+    private double percentile;
+
+    @Value("${cache.redis.hedge.min-delay:2ms}")
+    private Duration minDelay;
+
+    @Value("${cache.redis.hedge.max-delay:100ms}")
+    private Duration maxDelay;
+
+    @Value("${cache.redis.hedge.window-size:1024}")
+    private int windowSize;
+
+    @Value("${cache.redis.hedge.recompute-interval:1s}")
+    private Duration recomputeInterval;
+
+    // Ring of recent latencies; slots are overwritten without locking, a torn sample is harmless
+    private long[] window;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong computedAtNanos = new AtomicLong(System.nanoTime());
+    private volatile long delayNanos;
+    private volatile boolean windowFilled;
+
+    private final LongAdder hedged = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        window = new long[windowSize];
+        delayNanos = maxDelay.toNanos();
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("menu.cache.l2.hedge.delay", this, policy -> policy.delayNanos / 1_000_000_000.0)
+                .description("Current delay before an L2 read is abandoned for the database")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("menu.cache.l2.hedged", hedged, LongAdder::sum)
+                .description("L2 reads abandoned for a database load after the hedge delay")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordLatency(long nanos) {
+        if (!enabled) {
+            return;
+        }
+        int slot = next.getAndIncrement() & Integer.MAX_VALUE;
+        window[slot % windowSize] = nanos;
+        if (slot + 1 >= windowSize) {
+            windowFilled = true;
+        }
+    }
+
+    public Duration currentDelay() {
+        long now = System.nanoTime();
+        long computedAt = computedAtNanos.get();
+        if (windowFilled && now - computedAt >= recomputeInterval.toNanos()
+                && computedAtNanos.compareAndSet(computedAt, now)) {
+            delayNanos = computeDelay();
+        }
+        return Duration.ofNanos(delayNanos);
+    }
+
+    public void recordHedge() {
+        hedged.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("percentile", percentile);
+        stats.put("delayMicros", delayNanos / 1000);
+        stats.put("hedged", hedged.sum());
+        return stats;
+    }
+
+    private long computeDelay() {
+        long[] sorted = window.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        long delay = sorted[Math.max(0, rank)];
+        return Math.max(minDelay.toNanos(), Math.min(maxDelay.toNanos(), delay));
+    }
+}
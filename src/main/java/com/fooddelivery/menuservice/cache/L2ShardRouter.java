@@ -0,0 +1,349 @@
+package com.fooddelivery.menuservice.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Client-side sharding of the L2 menu keys over several Redis nodes.
+ *
+ * Keys map to shards on a ConsistentHashRing, so adding or removing a node moves only about
+ * 1/N of them. A shard that fails failure-threshold calls in a row, or its periodic PING, is
+ * taken out and its keys go to the next shard clockwise until it answers again.
+ *
+ * Deletes go to the first two shards of a key on the ring and to its current owner, so a shard
+ * that takes a key over (after a node is lost, or removed again after being added) never holds
+ * a copy older than the last delete. Deletes meant for a shard that is down are remembered and
+ * replayed before it is taken back (as are deletes that failed on a shard still up); past
+ * max-missed-deletes all its menu keys are dropped instead.
+ *
+ * With a single shard there is no health checking: the Redis circuit breaker covers it.
+ */
+public class L2ShardRouter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(L2ShardRouter.class);
+
+    private static final int DELETE_BATCH = 500;
+
+    private final List<Shard> shards;
+    private final ConsistentHashRing ring;
+    private final IntPredicate healthy;
+    private final String menuKeyPattern;
+    private final int failureThreshold;
+    private final int maxMissedDeletes;
+    private final ScheduledExecutorService scheduler;
+
+    public L2ShardRouter(List<Shard> shards, int virtualNodes, String menuKeyPattern, int failureThreshold,
+                         Duration healthCheckInterval, int maxMissedDeletes, MeterRegistry meterRegistry) {
+        this.shards = List.copyOf(shards);
+        this.ring = new ConsistentHashRing(shards.stream().map(Shard::getName).toList(), virtualNodes);
+        this.healthy = node -> this.shards.get(node).healthy;
+        this.menuKeyPattern = menuKeyPattern;
+        this.failureThreshold = failureThreshold;
+        this.maxMissedDeletes = maxMissedDeletes;
+
+        for (Shard shard : this.shards) {
+            Gauge.builder("menu.cache.l2.shard.healthy", shard, s -> s.healthy ? 1 : 0)
+                    .description("Whether the L2 shard currently takes its keys")
+                    .tag("shard", shard.name)
+                    .register(meterRegistry);
+            Gauge.builder("menu.cache.l2.shard.keys", shard, s -> s.keys)
+                    .description("Keys in the L2 shard's database at the last health check")
+                    .tag("shard", shard.name)
+                    .register(meterRegistry);
+            FunctionCounter.builder("menu.cache.l2.shard.requests", shard.requests, LongAdder::sum)
+                    .description("Keys routed to the L2 shard for reads, writes and deletes")
+                    .tag("shard", shard.name)
+                    .register(meterRegistry);
+            FunctionCounter.builder("menu.cache.l2.shard.errors", shard.errors, LongAdder::sum)
+                    .description("Failed calls to the L2 shard")
+                    .tag("shard", shard.name)
+                    .register(meterRegistry);
+        }
+
+        if (isSharded()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "l2-shard-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::checkShards,
+                    0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    public boolean isSharded() {
+        return shards.size() > 1;
+    }
+
+    // The shard currently serving the key
+    public Shard shardFor(String key) {
+        Shard shard = isSharded() ? shards.get(ring.nodeFor(key, healthy)) : shards.get(0);
+        shard.requests.increment();
+        return shard;
+    }
+
+    // Keys by the shard currently serving them, in the order given
+    public Map<Shard, List<String>> groupByShard(Collection<String> keys) {
+        Map<Shard, List<String>> groups = new LinkedHashMap<>();
+        for (String key : keys) {
+            groups.computeIfAbsent(shardFor(key), shard -> new ArrayList<>()).add(key);
+        }
+        return groups;
+    }
+
+    /**
+     * Keys by the healthy shards to delete them from: the key's first two shards on the ring
+     * and its current owner, less the owner if its copy is kept (e.g. just patched there).
+     * Shards that are down are left out and the keys remembered for when they return.
+     */
+    public Map<Shard, List<String>> groupForDelete(Collection<String> keys, boolean keepOwnerCopy) {
+        if (!isSharded()) {
+            return keepOwnerCopy || keys.isEmpty() ? Map.of() : groupByShard(keys);
+        }
+        Map<Shard, List<String>> groups = new LinkedHashMap<>();
+        for (String key : keys) {
+            int owner = ring.nodeFor(key, healthy);
+            int[] standby = ring.nodesFor(key, 2);
+            for (int node : new int[] {owner, standby[0], standby.length > 1 ? standby[1] : owner}) {
+                Shard shard = shards.get(node);
+                if (keepOwnerCopy && node == owner) {
+                    continue;
+                }
+                if (!shard.healthy) {
+                    shard.missedDelete(key, maxMissedDeletes);
+                    continue;
+                }
+                List<String> group = groups.computeIfAbsent(shard, s -> new ArrayList<>());
+                if (group.isEmpty() || !group.get(group.size() - 1).equals(key)) {
+                    shard.requests.increment();
+                    group.add(key);
+                }
+            }
+        }
+        return groups;
+    }
+
+    public void recordSuccess(Shard shard) {
+        if (shard.consecutiveFailures.get() != 0) {
+            shard.consecutiveFailures.set(0);
+        }
+    }
+
+    public void recordFailure(Shard shard, Throwable e) {
+        shard.errors.increment();
+        shard.lastError = e.getMessage();
+        if (isSharded() && shard.consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            markDown(shard);
+        }
+    }
+
+    // A delete that failed is retried by the health check, so the shard cannot serve the key later
+    public void recordFailedDelete(Shard shard, Collection<String> keys, Throwable e) {
+        recordFailure(shard, e);
+        if (isSharded()) {
+            keys.forEach(key -> shard.missedDelete(key, maxMissedDeletes));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sharded", isSharded());
+        List<Map<String, Object>> shardStats = new ArrayList<>();
+        for (int node = 0; node < shards.size(); node++) {
+            Shard shard = shards.get(node);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", shard.name);
+            entry.put("healthy", shard.healthy);
+            entry.put("ringShare", ring.share(node));
+            entry.put("keys", shard.keys);
+            entry.put("requests", shard.requests.sum());
+            entry.put("errors", shard.errors.sum());
+            entry.put("missedDeletes", shard.missedOverflow ? "all" : shard.missedDeletes.size());
+            entry.put("lastError", shard.lastError);
+            shardStats.add(entry);
+        }
+        stats.put("shards", shardStats);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            // Let a running check finish: an interrupted command makes Lettuce reconnect during shutdown
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Shard shard : shards) {
+            if (shard.ownedConnectionFactory != null) {
+                shard.ownedConnectionFactory.destroy();
+            }
+        }
+    }
+
+    private void checkShards() {
+        for (Shard shard : shards) {
+            try {
+                Long keys = shard.template.execute((RedisCallback<Long>) connection -> {
+                    connection.ping();
+                    return connection.serverCommands().dbSize();
+                });
+                shard.keys = keys != null ? keys : -1;
+                if (shard.healthy) {
+                    replayMissedDeletes(shard);
+                } else {
+                    replayMissedDeletes(shard);
+                    shard.healthy = true;
+                    // Deletes recorded between the replay and the shard coming back
+                    replayMissedDeletes(shard);
+                    logger.info("L2 shard {} back on the ring", shard.name);
+                }
+                shard.consecutiveFailures.set(0);
+                shard.lastError = null;
+            } catch (Exception e) {
+                shard.lastError = e.getMessage();
+                markDown(shard);
+            }
+        }
+    }
+
+    private void replayMissedDeletes(Shard shard) {
+        if (shard.missedDeletes.isEmpty() && !shard.missedOverflow) {
+            return;
+        }
+        if (shard.missedOverflow) {
+            int deleted = 0;
+            List<String> batch = new ArrayList<>(DELETE_BATCH);
+            ScanOptions options = ScanOptions.scanOptions().match(menuKeyPattern).count(DELETE_BATCH).build();
+            try (Cursor<String> cursor = shard.template.scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == DELETE_BATCH) {
+                        deleted += deleteBatch(shard, batch);
+                    }
+                }
+            }
+            deleted += deleteBatch(shard, batch);
+            shard.missedOverflow = false;
+            shard.missedDeletes.clear();
+            logger.info("L2 shard {} missed too many deletes while down; dropped its {} menu keys", shard.name, deleted);
+            return;
+        }
+        // Keys leave the set before their delete, so one missed again meanwhile is kept
+        List<String> batch = new ArrayList<>(DELETE_BATCH);
+        try {
+            for (String key : shard.missedDeletes) {
+                batch.add(key);
+                shard.missedDeletes.remove(key);
+                if (batch.size() == DELETE_BATCH) {
+                    deleteBatch(shard, batch);
+                }
+            }
+            deleteBatch(shard, batch);
+        } catch (RuntimeException e) {
+            // The batch was not deleted: keep its keys for the next check to replay
+            batch.forEach(key -> shard.missedDelete(key, maxMissedDeletes));
+            throw e;
+        }
+    }
+
+    private static int deleteBatch(Shard shard, List<String> batch) {
+        int deleted = batch.size();
+        if (!batch.isEmpty()) {
+            shard.template.delete(batch);
+            batch.clear();
+        }
+        return deleted;
+    }
+
+    private void markDown(Shard shard) {
+        if (shard.healthy && isSharded()) {
+            shard.healthy = false;
+            logger.warn("L2 shard {} taken off the ring, its keys go to the next shard: {}", shard.name, shard.lastError);
+        }
+    }
+
+    /**
+     * One Redis node of the L2 tier, named host:port. Its connection factory is closed with the
+     * router unless it is shared (the main spring.data.redis connection).
+     */
+    public static final class Shard {
+        private final String name;
+        private final RedisTemplate<String, Object> template;
+        private final ReactiveRedisTemplate<String, Object> reactiveTemplate;
+        private final LettuceConnectionFactory ownedConnectionFactory;
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean healthy = true;
+        private volatile long keys = -1;
+        private volatile String lastError;
+
+        // Keys deleted while the shard was down, to delete there before it is taken back
+        private final Set<String> missedDeletes = ConcurrentHashMap.newKeySet();
+        private volatile boolean missedOverflow;
+
+        public Shard(String name, RedisTemplate<String, Object> template,
+                     ReactiveRedisTemplate<String, Object> reactiveTemplate,
+                     LettuceConnectionFactory ownedConnectionFactory) {
+            this.name = name;
+            this.template = template;
+            this.reactiveTemplate = reactiveTemplate;
+            this.ownedConnectionFactory = ownedConnectionFactory;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public RedisTemplate<String, Object> getTemplate() {
+            return template;
+        }
+
+        public ReactiveRedisTemplate<String, Object> getReactiveTemplate() {
+            return reactiveTemplate;
+        }
+
+        private void missedDelete(String key, int maxMissedDeletes) {
+            if (missedOverflow) {
+                return;
+            }
+            if (missedDeletes.size() >= maxMissedDeletes) {
+                missedOverflow = true;
+                missedDeletes.clear();
+                return;
+            }
+            missedDeletes.add(key);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.fooddelivery.menuservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the menu read path.
+ *
+ * Every meter is registered once at startup and held in a field, so recording on the
+ * hot path is a counter increment or a timer record with a precomputed duration: no
+ * tag lookup and no Timer.Sample allocation.
+ */
+@Component
+public class MenuCacheMetrics {
+
+    public static final String REDIS_GET = "get";
+    public static final String REDIS_MGET = "mget";
+    public static final String REDIS_SET = "set";
+    public static final String REDIS_PIPELINED_SET = "pipelined_set";
+    public static final String REDIS_DELETE = "delete";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter l1Hits;
+    private Counter l1Misses;
+    private Counter offHeapHits;
+    private Counter offHeapMisses;
+    private Counter l2Hits;
+    private Counter l2Misses;
+    private Counter l2ReplicaHits;
+    private Counter l2ReplicaMisses;
+    private Counter databaseHits;
+    private Counter databaseMisses;
+    private Counter l1NegativeHits;
+    private Counter l2NegativeHits;
+    private Counter idFilterRejects;
+
+    private Timer l1Lookup;
+    private Timer offHeapLookup;
+    private Timer l2Lookup;
+    private Timer databaseLoad;
+
+    private Counter redisGetErrors;
+    private Counter redisMultiGetErrors;
+    private Counter redisSetErrors;
+    private Counter redisPipelinedSetErrors;
+    private Counter redisDeleteErrors;
+
+    private DistributionSummary responseSize;
+
+    @PostConstruct
+    public void registerMeters() {
+        l1Hits = requests("l1", "hit");
+        l1Misses = requests("l1", "miss");
+        offHeapHits = requests("offheap", "hit");
+        offHeapMisses = requests("offheap", "miss");
+        l2Hits = requests("l2", "hit");
+        l2Misses = requests("l2", "miss");
+        l2ReplicaHits = requests("l2_replica", "hit");
+        l2ReplicaMisses = requests("l2_replica", "miss");
+        databaseHits = requests("db", "hit");
+        databaseMisses = requests("db", "miss");
+        l1NegativeHits = requests("l1", "negative");
+        l2NegativeHits = requests("l2", "negative");
+        idFilterRejects = requests("id_filter", "reject");
+
+        l1Lookup = lookup("l1");
+        offHeapLookup = lookup("offheap");
+        l2Lookup = lookup("l2");
+        databaseLoad = lookup("db");
+
+        redisGetErrors = redisErrors(REDIS_GET);
+        redisMultiGetErrors = redisErrors(REDIS_MGET);
+        redisSetErrors = redisErrors(REDIS_SET);
+        redisPipelinedSetErrors = redisErrors(REDIS_PIPELINED_SET);
+        redisDeleteErrors = redisErrors(REDIS_DELETE);
+
+        responseSize = DistributionSummary.builder("menu.response.size")
+                .description("Bytes written for menu read responses")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private Counter requests(String tier, String result) {
+        return Counter.builder("menu.cache.requests")
+                .description("Menu lookups per tier and result")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer lookup(String tier) {
+        return Timer.builder("menu.cache.lookup")
+                .description("Menu lookup latency per tier")
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    private Counter redisErrors(String operation) {
+        return Counter.builder("menu.cache.redis.errors")
+                .description("Redis operations that failed and were swallowed by the cache layer")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    public void recordL1(boolean hit, long startNanos) {
+        l1Lookup.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        (hit ? l1Hits : l1Misses).increment();
+    }
+
+    public void recordL1(int hits, int misses) {
+        l1Hits.increment(hits);
+        l1Misses.increment(misses);
+    }
+
+    public void recordOffHeap(boolean hit, long startNanos) {
+        offHeapLookup.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        (hit ? offHeapHits : offHeapMisses).increment();
+    }
+
+    public void recordOffHeap(int hits, int misses, long startNanos) {
+        offHeapLookup.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        offHeapHits.increment(hits);
+        offHeapMisses.increment(misses);
+    }
+
+    public void recordL2(boolean hit, long startNanos) {
+        l2Lookup.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        (hit ? l2Hits : l2Misses).increment();
+    }
+
+    public void recordL2(int hits, int negatives, int misses, long startNanos) {
+        l2Lookup.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        l2Hits.increment(hits);
+        l2NegativeHits.increment(negatives);
+        l2Misses.increment(misses);
+    }
+
+    // Hot-key read of a replicated L2 copy; a miss falls through to the main key
+    public void recordL2Replica(boolean hit) {
+        (hit ? l2ReplicaHits : l2ReplicaMisses).increment();
+    }
+
+    public void recordL2Negative(long startNanos) {
+        l2Lookup.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        l2NegativeHits.increment();
+    }
+
+    public void recordL1Negative(int count) {
+        l1NegativeHits.increment(count);
+    }
+
+    public void recordIdFilterRejects(int count) {
+        idFilterRejects.increment(count);
+    }
+
+    public void recordDatabase(int found, int notFound, long startNanos) {
+        databaseLoad.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        databaseHits.increment(found);
+        databaseMisses.increment(notFound);
+    }
+
+    public void recordRedisError(String operation) {
+        switch (operation) {
+            case REDIS_GET -> redisGetErrors.increment();
+            case REDIS_MGET -> redisMultiGetErrors.increment();
+            case REDIS_SET -> redisSetErrors.increment();
+            case REDIS_PIPELINED_SET -> redisPipelinedSetErrors.increment();
+            case REDIS_DELETE -> redisDeleteErrors.increment();
+            default -> throw new IllegalArgumentException("Unknown Redis operation: " + operation);
+        }
+    }
+
+    public void recordResponseSize(long bytes) {
+        responseSize.record(bytes);
+    }
+
+    public long getL1Hits() {
+        return (long) l1Hits.count();
+    }
+
+    public long getL1Misses() {
+        return (long) l1Misses.count();
+    }
+
+    public long getOffHeapHits() {
+        return (long) offHeapHits.count();
+    }
+
+    public long getOffHeapMisses() {
+        return (long) offHeapMisses.count();
+    }
+
+    public long getL2Hits() {
+        return (long) l2Hits.count();
+    }
+
+    public long getL2Misses() {
+        return (long) l2Misses.count();
+    }
+
+    public long getL2ReplicaHits() {
+        return (long) l2ReplicaHits.count();
+    }
+
+    public long getL2ReplicaMisses() {
+        return (long) l2ReplicaMisses.count();
+    }
+
+    public long getL1NegativeHits() {
+        return (long) l1NegativeHits.count();
+    }
+
+    public long getL2NegativeHits() {
+        return (long) l2NegativeHits.count();
+    }
+
+    public long getIdFilterRejects() {
+        return (long) idFilterRejects.count();
+    }
+
+    public long getL2Errors() {
+        return (long) (redisGetErrors.count() + redisMultiGetErrors.count());
+    }
+
+    public long getDatabaseLoads() {
+        return (long) (databaseHits.count() + databaseMisses.count());
+    }
+
+    public long getDatabaseNotFound() {
+        return (long) databaseMisses.count();
+    }
+}
@@ -0,0 +1,253 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fooddelivery.menuservice.cache.codec.MenuBinaryCodec;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.fooddelivery.menuservice.service.CacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic snapshot of the hottest L1 menus, restored at startup for a warm restart.
+ *
+ * Every cache.snapshot.interval (and on shutdown) the hottest entries by Caffeine's
+ * frequency sketch are written, hottest first, to cache.snapshot.path with the binary
+ * menu codec. The file is written to a temporary file and moved into place, so readers
+ * never see a partial snapshot.
+ *
+ * On startup the file is memory-mapped and decoded into L1 before the application reports
+ * ready (application runners complete before the readiness state changes), stopping at
+ * cache.snapshot.load-budget. Snapshots with a different layout or codec version, or older
+ * than cache.snapshot.max-age, are discarded: they may hold menus changed while the node
+ * was down, and the invalidations for them were missed.
+ *
+ * Layout: MAGIC, SNAPSHOT_VERSION, codec version, written-at epoch millis, entry count,
+ * then per entry its length and the encoded menu.
+ */
+@Component
+public class MenuCacheSnapshot implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuCacheSnapshot.class);
+    private static final int MAGIC = 0x4D534E50; // "MSNP"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 1 + 8 + 4;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Value("${cache.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cache.snapshot.path:data/l1-menu-snapshot.bin}")
+    private Path path;
+
+    @Value("${cache.snapshot.interval:5m}")
+    private Duration interval;
+
+    @Value("${cache.snapshot.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${cache.snapshot.max-age:15m}")
+    private Duration maxAge;
+
+    @Value("${cache.snapshot.load-budget:2s}")
+    private Duration loadBudget;
+
+    @Value("${cache.redis.compression-threshold:4096}")
+    private int compressionThreshold;
+
+    private MenuBinaryCodec codec;
+    private ScheduledExecutorService scheduler;
+
+    private volatile int lastWrittenEntries;
+    private volatile long lastWrittenBytes;
+    private volatile long lastWriteMillis;
+    private volatile int restoredEntries;
+    private volatile long restoreMillis;
+    private volatile String lastDiscardReason;
+
+    @PostConstruct
+    public void start() {
+        codec = new MenuBinaryCodec(compressionThreshold);
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "menu-cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = interval.toMillis();
+        scheduler.scheduleAtFixedRate(this::writeQuietly, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            writeQuietly();
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            restore();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("path", path.toString());
+        stats.put("lastWrittenEntries", lastWrittenEntries);
+        stats.put("lastWrittenBytes", lastWrittenBytes);
+        stats.put("lastWriteMillis", lastWriteMillis);
+        stats.put("restoredEntries", restoredEntries);
+        stats.put("restoreMillis", restoreMillis);
+        stats.put("lastDiscardReason", lastDiscardReason);
+        return stats;
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (Exception e) {
+            logger.warn("Could not write L1 snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void write() throws IOException {
+        long start = System.nanoTime();
+        List<RestaurantDTO> hottest = cacheService.hottestL1Entries(maxEntries);
+        if (hottest.isEmpty()) {
+            // Keep the previous snapshot rather than replacing it with an empty one
+            return;
+        }
+
+        List<byte[]> entries = new ArrayList<>(hottest.size());
+        for (RestaurantDTO restaurant : hottest) {
+            try {
+                entries.add(codec.encode(restaurant));
+            } catch (ArithmeticException e) {
+                // A price the binary format cannot hold; the menu loads on its first read instead
+            }
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeByte(MenuBinaryCodec.FORMAT_VERSION);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(entries.size());
+                for (byte[] entry : entries) {
+                    out.writeInt(entry.length);
+                    out.write(entry);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        lastWrittenEntries = entries.size();
+        lastWrittenBytes = Files.size(path);
+        lastWriteMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.debug("Wrote L1 snapshot: {} menus, {} bytes in {} ms", lastWrittenEntries, lastWrittenBytes, lastWriteMillis);
+    }
+
+    private void restore() {
+        if (!Files.isReadable(path)) {
+            logger.info("No L1 snapshot at {}, starting with an empty L1", path);
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + loadBudget.toNanos();
+
+        List<RestaurantDTO> restaurants = new ArrayList<>();
+        int total;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            String incompatible = checkHeader(buffer, channel.size());
+            if (incompatible != null) {
+                discard(incompatible);
+                return;
+            }
+            total = buffer.getInt();
+            for (int i = 0; i < total && System.nanoTime() < deadline; i++) {
+                byte[] entry = new byte[buffer.getInt()];
+                buffer.get(entry);
+                restaurants.add(codec.decode(entry));
+            }
+        } catch (IOException | RuntimeException e) {
+            // Any malformed entry (bad lengths, undecodable menu) makes the whole file unusable
+            discard("unreadable: " + e.getMessage());
+            return;
+        }
+
+        restoredEntries = cacheService.restoreL1Entries(restaurants);
+        restoreMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Restored {} of {} menus from L1 snapshot {} in {} ms",
+                restoredEntries, total, path, restoreMillis);
+    }
+
+    // Reads the header up to the entry count; returns why the snapshot cannot be used, or null
+    private String checkHeader(MappedByteBuffer buffer, long size) {
+        if (size < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            return "not a snapshot file";
+        }
+        int version = buffer.getInt();
+        if (version != SNAPSHOT_VERSION) {
+            return "snapshot version " + version + ", expected " + SNAPSHOT_VERSION;
+        }
+        byte codecVersion = buffer.get();
+        if (codecVersion != MenuBinaryCodec.FORMAT_VERSION) {
+            return "codec version " + codecVersion + ", expected " + MenuBinaryCodec.FORMAT_VERSION;
+        }
+        long ageMillis = System.currentTimeMillis() - buffer.getLong();
+        if (ageMillis > maxAge.toMillis()) {
+            return "written " + Duration.ofMillis(ageMillis).toSeconds() + "s ago, max age " + maxAge.toSeconds() + "s";
+        }
+        return null;
+    }
+
+    private void discard(String reason) {
+        lastDiscardReason = reason;
+        logger.warn("Discarding L1 snapshot {}: {}", path, reason);
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete L1 snapshot {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Veg and availability bitmaps over the item list of a cached menu, used to answer
+ * filtered menu views from the cached RestaurantDTO.
+ *
+ * Like MenuResponseCache, bitmaps are keyed by the identity of the DTO instance held
+ * in L1 (weak keys): a refreshed or patched menu gets new bitmaps on first use, and
+ * there is one entry per menu whatever filter combinations are requested.
+ * Compact L1 menus carry their own bitmaps and are filtered without an entry here.
+ */
+@Component
+public class MenuFilterIndex {
+
+    @Value("${cache.filter-index.maximum-size:10000}")
+    private long maximumSize;
+
+    private Cache<RestaurantDTO, Bitmaps> bitmaps;
+
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder built = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        bitmaps = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * A copy of the menu holding only the items matching the given filters
+     * (null means "either"). Items are shared with the cached menu, not copied.
+     */
+    public RestaurantDTO filter(RestaurantDTO restaurant, Boolean veg, Boolean available) {
+        if (veg == null && available == null) {
+            return restaurant;
+        }
+        filtered.increment();
+        CompactMenu compact = CompactMenu.backing(restaurant);
+        if (compact != null) {
+            return compact.select(select(compact.size(), compact.vegBits(), compact.availableBits(), veg, available))
+                    .toRestaurantDTO();
+        }
+
+        Bitmaps index = bitmaps.get(restaurant, this::build);
+        BitSet matches = select(index.size, index.veg, index.available, veg, available);
+
+        List<MenuItemDTO> items = restaurant.getMenuItems();
+        List<MenuItemDTO> selected = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            selected.add(items.get(i));
+        }
+        return new RestaurantDTO(restaurant.getRestaurantId(), restaurant.getName(),
+                restaurant.getAddress(), selected);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("filteredViews", filtered.sum());
+        stats.put("bitmapsBuilt", built.sum());
+        stats.put("bitmapsCached", bitmaps.estimatedSize());
+        return stats;
+    }
+
+    private static BitSet select(int size, BitSet vegBits, BitSet availableBits, Boolean veg, Boolean available) {
+        BitSet matches = new BitSet(size);
+        matches.set(0, size);
+        if (veg != null) {
+            apply(matches, vegBits, veg);
+        }
+        if (available != null) {
+            apply(matches, availableBits, available);
+        }
+        return matches;
+    }
+
+    private static void apply(BitSet matches, BitSet bits, boolean wanted) {
+        if (wanted) {
+            matches.and(bits);
+        } else {
+            matches.andNot(bits);
+        }
+    }
+
+    private Bitmaps build(RestaurantDTO restaurant) {
+        built.increment();
+        List<MenuItemDTO> items = restaurant.getMenuItems();
+        int size = items == null ? 0 : items.size();
+        BitSet veg = new BitSet(size);
+        BitSet available = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            MenuItemDTO item = items.get(i);
+            if (Boolean.TRUE.equals(item.getVeg())) {
+                veg.set(i);
+            }
+            if (Boolean.TRUE.equals(item.getAvailability())) {
+                available.set(i);
+            }
+        }
+        return new Bitmaps(size, veg, available);
+    }
+
+    private static final class Bitmaps {
+        private final int size;
+        private final BitSet veg;
+        private final BitSet available;
+
+        private Bitmaps(int size, BitSet veg, BitSet available) {
+            this.size = size;
+            this.veg = veg;
+            this.available = available;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight loader for restaurant menus.
+ * Concurrent cache misses for the same restaurant share one L2/DB load;
+ * the first caller (leader) runs the loader and the rest wait on its result.
+ */
+@Component
+public class MenuLoadCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuLoadCoalescer.class);
+
+    private final ConcurrentHashMap<UUID, CompletableFuture<RestaurantDTO>> inFlightLoads = new ConcurrentHashMap<>();
+
+    private final LongAdder leaderLoads = new LongAdder();
+    private final LongAdder coalescedCallers = new LongAdder();
+    private final LongAdder failedLoads = new LongAdder();
+
+    public RestaurantDTO load(UUID restaurantId, Supplier<RestaurantDTO> loader) {
+        CompletableFuture<RestaurantDTO> ownLoad = new CompletableFuture<>();
+        CompletableFuture<RestaurantDTO> existingLoad = inFlightLoads.putIfAbsent(restaurantId, ownLoad);
+
+        if (existingLoad != null) {
+            coalescedCallers.increment();
+            logger.debug("Joining in-flight load for restaurant: {}", restaurantId);
+            return await(existingLoad);
+        }
+
+        leaderLoads.increment();
+        try {
+            RestaurantDTO restaurant = loader.get();
+            ownLoad.complete(restaurant);
+            return restaurant;
+        } catch (RuntimeException | Error e) {
+            failedLoads.increment();
+            ownLoad.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(restaurantId, ownLoad);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("leaderLoads", leaderLoads.sum());
+        stats.put("coalescedCallers", coalescedCallers.sum());
+        stats.put("failedLoads", failedLoads.sum());
+        stats.put("inFlight", inFlightLoads.size());
+        return stats;
+    }
+
+    /**
+     * Wait for the leader's result, rethrowing its exception as-is
+     * so callers see e.g. ResourceNotFoundException rather than a wrapper.
+     */
+    private RestaurantDTO await(CompletableFuture<RestaurantDTO> load) {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for menu load", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+}
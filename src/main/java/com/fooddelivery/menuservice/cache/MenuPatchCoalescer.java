@@ -0,0 +1,115 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fooddelivery.menuservice.dto.MenuItemPatch;
+import com.fooddelivery.menuservice.repository.MenuItemRepository;
+import com.fooddelivery.menuservice.service.CacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces committed menu item patches per restaurant before they are applied to the caches.
+ *
+ * The first patch for a restaurant opens a window of cache.patch.coalesce-window; patches
+ * arriving meanwhile are merged into it (later fields win), and the whole set is applied
+ * to L1 and L2 and published to other nodes once. A burst of availability toggles thus
+ * costs one cache write and one invalidation message instead of one per toggle.
+ *
+ * Concurrent transactions can run their after-commit hooks out of order, so the values
+ * applied are re-read from the database at flush time (one indexed query per restaurant);
+ * the submitted patches only say which items changed.
+ */
+@Component
+public class MenuPatchCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuPatchCoalescer.class);
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Value("${cache.patch.coalesce-window:20ms}")
+    private Duration coalesceWindow;
+
+    private final ConcurrentHashMap<UUID, Map<UUID, MenuItemPatch>> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder patchesSubmitted = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "menu-patch-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        pending.keySet().forEach(this::flush);
+    }
+
+    public void submit(UUID restaurantId, Map<UUID, MenuItemPatch> patches) {
+        patchesSubmitted.add(patches.size());
+        boolean[] opened = {false};
+        pending.compute(restaurantId, (id, existing) -> {
+            if (existing == null) {
+                opened[0] = true;
+                return new LinkedHashMap<>(patches);
+            }
+            patches.forEach((menuId, patch) -> existing.merge(menuId, patch, MenuItemPatch::mergedWith));
+            return existing;
+        });
+        if (opened[0]) {
+            scheduler.schedule(() -> flush(restaurantId), coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("coalesceWindowMillis", coalesceWindow.toMillis());
+        stats.put("patchesSubmitted", patchesSubmitted.sum());
+        stats.put("flushes", flushes.sum());
+        stats.put("pendingRestaurants", pending.size());
+        return stats;
+    }
+
+    private void flush(UUID restaurantId) {
+        Map<UUID, MenuItemPatch> patches = pending.remove(restaurantId);
+        if (patches == null) {
+            return;
+        }
+        try {
+            Map<UUID, MenuItemPatch> committed = new LinkedHashMap<>();
+            for (Object[] row : menuItemRepository.findPriceAndAvailabilityByMenuIds(patches.keySet())) {
+                UUID menuId = (UUID) row[0];
+                committed.put(menuId, new MenuItemPatch(menuId, (BigDecimal) row[1], (Boolean) row[2]));
+            }
+            cacheService.patchCachedMenu(restaurantId, committed);
+            flushes.increment();
+        } catch (Exception e) {
+            logger.error("Error patching cached menu for restaurant: {}: {}", restaurantId, e.getMessage());
+            cacheService.clearBothCaches(restaurantId);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fooddelivery.menuservice.dto.ApiResponse;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized menu responses, kept next to the cached RestaurantDTO.
+ *
+ * Entries are keyed by the identity of the DTO instance held in L1 (weak keys), so a
+ * refreshed, patched or invalidated menu is re-encoded automatically and an entry goes
+ * away once its DTO is no longer referenced. The body leaves out the ApiResponse
+ * timestamp, so the same menu always encodes to the same bytes, and the ETag is a hash
+ * of those bytes: the same for every encoding of the menu, on every node.
+ */
+@Component
+public class MenuResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuResponseCache.class);
+    public static final String MENU_RETRIEVED_MESSAGE = "Menu retrieved successfully";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${cache.response-bytes.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cache.response-bytes.gzip:true}")
+    private boolean gzipEnabled;
+
+    @Value("${cache.response-bytes.gzip-min-size:1024}")
+    private int gzipMinSize;
+
+    @Value("${cache.response-bytes.maximum-size:1000}")
+    private long maximumSize;
+
+    private Cache<RestaurantDTO, EncodedMenuResponse> encodedResponses;
+
+    private ObjectWriter bodyWriter;
+
+    @PostConstruct
+    public void init() {
+        bodyWriter = objectMapper.copy()
+                .addMixIn(ApiResponse.class, WithoutTimestamp.class)
+                .writer();
+        encodedResponses = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public EncodedMenuResponse get(RestaurantDTO restaurant) {
+        return encodedResponses.get(restaurant, this::encode);
+    }
+
+    private EncodedMenuResponse encode(RestaurantDTO restaurant) {
+        try {
+            byte[] body = bodyWriter.writeValueAsBytes(ApiResponse.success(MENU_RETRIEVED_MESSAGE, restaurant));
+            byte[] gzipBody = gzipEnabled && body.length >= gzipMinSize ? gzip(body) : null;
+            logger.debug("Encoded menu response for restaurant: {} ({} bytes, gzip {} bytes)",
+                    restaurant.getRestaurantId(), body.length, gzipBody == null ? 0 : gzipBody.length);
+            return new EncodedMenuResponse(body, gzipBody, contentHash(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode menu response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String contentHash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Mix-in for the cached body: everything but the per-request timestamp
+    @JsonIgnoreProperties("timestamp")
+    private abstract static class WithoutTimestamp {
+    }
+}
@@ -0,0 +1,107 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * L1 weigher: the estimated retained heap size, in bytes, of a cached menu and its key.
+ *
+ * Sizes assume a 64-bit JVM with compressed oops and class pointers (12-byte object
+ * headers, 4-byte references, 8-byte alignment) and compact strings. Boolean values
+ * are the shared Boolean.TRUE/FALSE instances and cost nothing. Compact menus report
+ * their own size. The estimate is computed once per put, so it does not have to be
+ * cheap, only stable.
+ *
+ * Menus of pinned restaurants (hot keys) weigh 0, which exempts them from size eviction.
+ */
+public final class MenuWeigher implements Weigher<String, Object> {
+
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int ARRAY_HEADER = 16;
+
+    // Caffeine node for a weighted, expiring entry: key/value references, weight, timestamps, links
+    private static final int CACHE_ENTRY = 64;
+    private static final int UUID_BYTES = align(HEADER + 2 * 8);
+    private static final int RESTAURANT_BYTES = align(HEADER + 4 * REFERENCE);
+    private static final int MENU_ITEM_BYTES = align(HEADER + 5 * REFERENCE);
+    private static final int ARRAY_LIST_BYTES = align(HEADER + 4 + 4 + REFERENCE);
+    // intCompact long, scale and precision ints, intVal and stringCache references
+    private static final int BIG_DECIMAL_BYTES = align(HEADER + 8 + 4 + 4 + 2 * REFERENCE);
+
+    private final Predicate<UUID> pinned;
+
+    public MenuWeigher() {
+        this(restaurantId -> false);
+    }
+
+    public MenuWeigher(Predicate<UUID> pinned) {
+        this.pinned = pinned;
+    }
+
+    @Override
+    public int weigh(String key, Object value) {
+        UUID restaurantId = value instanceof CompactMenu compact ? compact.getRestaurantId()
+                : value instanceof RestaurantDTO restaurant ? restaurant.getRestaurantId() : null;
+        if (restaurantId != null && pinned.test(restaurantId)) {
+            return 0;
+        }
+        long size = CACHE_ENTRY + sizeOf(key);
+        if (value instanceof CompactMenu compact) {
+            size += compact.retainedSize();
+        } else if (value instanceof RestaurantDTO restaurant) {
+            size += sizeOf(restaurant);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    public static long sizeOf(RestaurantDTO restaurant) {
+        long size = RESTAURANT_BYTES + UUID_BYTES + sizeOf(restaurant.getName()) + sizeOf(restaurant.getAddress());
+        List<MenuItemDTO> items = restaurant.getMenuItems();
+        if (items != null) {
+            size += ARRAY_LIST_BYTES + align(ARRAY_HEADER + (long) items.size() * REFERENCE);
+            for (MenuItemDTO item : items) {
+                size += MENU_ITEM_BYTES + UUID_BYTES + sizeOf(item.getName()) + sizeOf(item.getPrice());
+            }
+        }
+        return size;
+    }
+
+    static long sizeOf(UUID value) {
+        return value == null ? 0 : UUID_BYTES;
+    }
+
+    static long sizeOf(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        // String: value reference, hash, coder and hashIsZero; then its byte[]
+        return align(HEADER + REFERENCE + 4 + 1 + 1) + align(ARRAY_HEADER + (long) value.length() * bytesPerChar);
+    }
+
+    // Prices with more than 18 digits also keep a BigInteger; menu prices never do
+    private static long sizeOf(BigDecimal value) {
+        return value == null ? 0 : BIG_DECIMAL_BYTES;
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
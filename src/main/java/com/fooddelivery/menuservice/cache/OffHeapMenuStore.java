@@ -0,0 +1,281 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fooddelivery.menuservice.cache.codec.MenuBinaryCodec;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Off-heap menu tier between Caffeine and Redis.
+ *
+ * Menus evicted from L1 for size are encoded with the binary menu codec and appended to
+ * one of cache.offheap.segments direct-memory ring buffers, which together hold at most
+ * cache.offheap.capacity bytes. Only a small index (restaurant ID to ring offset) lives
+ * on the heap. A segment evicts in write order: appending past the end of the ring
+ * reclaims the oldest records. Entries also expire after cache.offheap.ttl.
+ *
+ * A hit removes the entry and the caller promotes it back to L1, so a menu lives in
+ * exactly one of the two tiers and a hot menu costs one decode per promotion, not per read.
+ *
+ * Record layout: length, restaurant ID (two longs), expiry epoch millis, encoded menu.
+ * A PADDING length marks unused space at the end of a ring before it wraps.
+ */
+@Component
+public class OffHeapMenuStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapMenuStore.class);
+    private static final int HEADER_BYTES = 4 + 8 + 8 + 8;
+    private static final int PADDING = -1;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.offheap.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cache.offheap.capacity:256MB}")
+    private DataSize capacity;
+
+    @Value("${cache.offheap.segments:16}")
+    private int segmentCount;
+
+    @Value("${cache.offheap.ttl:30m}")
+    private Duration ttl;
+
+    @Value("${cache.redis.compression-threshold:4096}")
+    private int compressionThreshold;
+
+    private MenuBinaryCodec codec;
+    private Segment[] segments;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        codec = new MenuBinaryCodec(compressionThreshold);
+        if (!enabled) {
+            return;
+        }
+        int segmentCapacity = (int) Math.min(Integer.MAX_VALUE, capacity.toBytes() / segmentCount);
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        Gauge.builder("menu.cache.offheap.entries", this, OffHeapMenuStore::entryCount)
+                .description("Menus held in the off-heap tier")
+                .register(meterRegistry);
+        Gauge.builder("menu.cache.offheap.used", this, OffHeapMenuStore::usedBytes)
+                .description("Bytes of the off-heap ring buffers in use, including superseded records")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        logger.info("Off-heap menu tier: {} segments of {} bytes", segmentCount, segmentCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void put(RestaurantDTO restaurant) {
+        if (!enabled) {
+            return;
+        }
+        byte[] entry;
+        try {
+            entry = codec.encode(restaurant);
+        } catch (ArithmeticException e) {
+            // A price the binary format cannot hold
+            rejected.increment();
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        if (segmentFor(restaurant.getRestaurantId()).put(restaurant.getRestaurantId(), entry, expiresAt)) {
+            stored.increment();
+        } else {
+            rejected.increment();
+        }
+    }
+
+    /**
+     * Remove and return the menu, or null if absent or expired
+     */
+    public RestaurantDTO take(UUID restaurantId) {
+        if (!enabled) {
+            return null;
+        }
+        byte[] entry = segmentFor(restaurantId).take(restaurantId, System.currentTimeMillis());
+        return entry == null ? null : codec.decode(entry);
+    }
+
+    public void remove(UUID restaurantId) {
+        if (enabled) {
+            segmentFor(restaurantId).remove(restaurantId);
+        }
+    }
+
+    public void clear() {
+        if (enabled) {
+            for (Segment segment : segments) {
+                segment.clear();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("capacityBytes", enabled ? capacity.toBytes() : 0);
+        stats.put("usedBytes", enabled ? usedBytes() : 0);
+        stats.put("entries", enabled ? entryCount() : 0);
+        stats.put("stored", stored.sum());
+        stats.put("evicted", evicted.sum());
+        stats.put("expired", expired.sum());
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+
+    private Segment segmentFor(UUID restaurantId) {
+        return segments[Math.floorMod(restaurantId.hashCode(), segments.length)];
+    }
+
+    private long entryCount() {
+        long entries = 0;
+        for (Segment segment : segments) {
+            entries += segment.size();
+        }
+        return entries;
+    }
+
+    private long usedBytes() {
+        long used = 0;
+        for (Segment segment : segments) {
+            used += segment.usedBytes();
+        }
+        return used;
+    }
+
+    /**
+     * One ring buffer and its index. Offsets are absolute byte counts since the segment was
+     * created; the physical position is the offset modulo the capacity. Records between
+     * tail and head are in the ring, and those the index points to are live.
+     */
+    private final class Segment {
+        private final ByteBuffer buffer;
+        private final int capacity;
+        private final Map<UUID, Long> index = new HashMap<>();
+        private long head;
+        private long tail;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+        }
+
+        synchronized boolean put(UUID restaurantId, byte[] entry, long expiresAt) {
+            int recordSize = HEADER_BYTES + entry.length;
+            if (recordSize > capacity) {
+                return false;
+            }
+            int position = (int) (head % capacity);
+            int toEnd = capacity - position;
+            if (toEnd < recordSize) {
+                long limit = head + toEnd + recordSize - capacity;
+                if (limit > head) {
+                    // Padding and record together exceed the ring: empty it, and start both
+                    // ends at its start so the record cannot overwrite a marker tail reads
+                    reclaim(head);
+                    head += toEnd;
+                    tail = head;
+                } else {
+                    // Pad out the end of the ring and write the record at its start
+                    reclaim(limit);
+                    if (toEnd >= 4) {
+                        buffer.putInt(position, PADDING);
+                    }
+                    head += toEnd;
+                }
+                position = 0;
+            } else {
+                reclaim(head + recordSize - capacity);
+            }
+
+            buffer.putInt(position, entry.length);
+            buffer.putLong(position + 4, restaurantId.getMostSignificantBits());
+            buffer.putLong(position + 12, restaurantId.getLeastSignificantBits());
+            buffer.putLong(position + 20, expiresAt);
+            buffer.put(position + HEADER_BYTES, entry);
+            index.put(restaurantId, head);
+            head += recordSize;
+            return true;
+        }
+
+        synchronized byte[] take(UUID restaurantId, long now) {
+            Long offset = index.remove(restaurantId);
+            if (offset == null) {
+                return null;
+            }
+            int position = (int) (offset % capacity);
+            if (buffer.getLong(position + 20) < now) {
+                expired.increment();
+                return null;
+            }
+            byte[] entry = new byte[buffer.getInt(position)];
+            buffer.get(position + HEADER_BYTES, entry);
+            return entry;
+        }
+
+        synchronized void remove(UUID restaurantId) {
+            index.remove(restaurantId);
+        }
+
+        synchronized void clear() {
+            index.clear();
+            tail = head;
+        }
+
+        synchronized int size() {
+            return index.size();
+        }
+
+        synchronized long usedBytes() {
+            return head - tail;
+        }
+
+        // Drop records until tail reaches limit, unindexing those still live
+        private void reclaim(long limit) {
+            while (tail < limit) {
+                int position = (int) (tail % capacity);
+                int toEnd = capacity - position;
+                if (toEnd < HEADER_BYTES || buffer.getInt(position) == PADDING) {
+                    tail += toEnd;
+                    continue;
+                }
+                int length = buffer.getInt(position);
+                UUID restaurantId = new UUID(buffer.getLong(position + 4), buffer.getLong(position + 12));
+                Long offset = index.get(restaurantId);
+                if (offset != null && offset == tail) {
+                    index.remove(restaurantId);
+                    evicted.increment();
+                }
+                tail += HEADER_BYTES + length;
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.fooddelivery.menuservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker in front of the Redis L2 tier.
+ *
+ * CLOSED: every call goes to Redis; cache.redis.circuit-breaker.failure-threshold failures
+ * in a row (errors or calls over their latency budget) open the circuit.
+ * OPEN: L2 is skipped entirely (reads miss, write-backs are dropped) for open-duration.
+ * HALF_OPEN: one probe call is let through; success closes the circuit, failure reopens it.
+ *
+ * The state is exported as the menu.cache.redis.circuit.state gauge (0 closed, 1 open,
+ * 2 half-open) and every transition as menu.cache.redis.circuit.transitions{state}.
+ */
+@Component
+public class RedisCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.redis.circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.redis.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${cache.redis.circuit-breaker.open-duration:5s}")
+    private Duration openDuration;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile long openedAtNanos;
+
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    public void registerMeters() {
+        for (State target : State.values()) {
+            transitions.put(target, Counter.builder("menu.cache.redis.circuit.transitions")
+                    .description("Redis circuit breaker state transitions, by the state entered")
+                    .tag("state", target.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("menu.cache.redis.circuit.state", state, current -> current.get().ordinal())
+                .description("Redis circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        FunctionCounter.builder("menu.cache.redis.circuit.rejected", rejected, LongAdder::sum)
+                .description("Redis calls skipped because the circuit was open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a Redis call may be made now. Returns false while open, and in half-open
+     * state for every caller but the single probe.
+     */
+    public boolean allowRequest() {
+        if (!enabled) {
+            return true;
+        }
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.nanoTime() - openedAtNanos >= openDuration.toNanos()) {
+            transition(State.OPEN, State.HALF_OPEN);
+        }
+        if (state.get() == State.HALF_OPEN && probeInFlight.compareAndSet(false, true)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void recordSuccess() {
+        if (!enabled) {
+            return;
+        }
+        consecutiveFailures.set(0);
+        if (state.get() == State.HALF_OPEN && transition(State.HALF_OPEN, State.CLOSED)) {
+            probeInFlight.set(false);
+        }
+    }
+
+    public void recordFailure() {
+        if (!enabled) {
+            return;
+        }
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+            probeInFlight.set(false);
+        } else if (current == State.CLOSED && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    /**
+     * A call abandoned before it answered (e.g. a hedged read past its delay). It went over
+     * its latency budget, so it counts as a failure: a Redis that stops answering opens the
+     * circuit even when every read is abandoned before its command times out.
+     */
+    public void recordAbandoned() {
+        recordFailure();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("state", state.get().name());
+        stats.put("consecutiveFailures", consecutiveFailures.get());
+        stats.put("rejected", rejected.sum());
+        Map<String, Long> entered = new LinkedHashMap<>();
+        transitions.forEach((target, counter) -> entered.put(target.name().toLowerCase(), (long) counter.count()));
+        stats.put("transitions", entered);
+        return stats;
+    }
+
+    private void open(State from) {
+        openedAtNanos = System.nanoTime();
+        if (transition(from, State.OPEN)) {
+            logger.warn("Redis circuit opened after {} consecutive failures; skipping L2 for {} ms",
+                    consecutiveFailures.get(), openDuration.toMillis());
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        transitions.get(to).increment();
+        if (to == State.CLOSED) {
+            logger.info("Redis circuit closed, L2 back in use");
+        } else if (to == State.HALF_OPEN) {
+            logger.info("Redis circuit half-open, probing L2");
+        }
+        return true;
+    }
+}
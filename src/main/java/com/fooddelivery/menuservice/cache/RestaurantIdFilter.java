@@ -0,0 +1,251 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fooddelivery.menuservice.config.ReplicaDataSource;
+import com.fooddelivery.menuservice.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Probabilistic set of existing restaurant IDs, used to reject unknown IDs before they
+ * reach Redis or the database. A "no" is definite; a "maybe" falls through to the caches.
+ *
+ * The filter is built from the database once the application is ready and extended as
+ * restaurants are created (locally after commit, on other nodes via the invalidation bus).
+ * Builds read the primary, so a restaurant a lagging replica does not have yet is not left
+ * out. IDs created before the first build starts are queued and added to it. It is rebuilt
+ * in the background when it has taken more IDs than it was sized for, or when the bus
+ * reports missed messages; a rebuild requested while one is running runs once it finishes.
+ * Until the first build completes every ID passes.
+ * Without the bus the filter would never see other nodes' restaurants, so it is disabled.
+ */
+@Component
+public class RestaurantIdFilter implements CacheInvalidationBus.Listener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantIdFilter.class);
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${cache.id-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.id-filter.expected-restaurants:1000000}")
+    private long expectedRestaurants;
+
+    @Value("${cache.id-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private volatile BloomFilter filter;
+    // Filter being rebuilt; IDs added meanwhile go into both
+    private volatile BloomFilter building;
+    // IDs created before the first build started; null once it has
+    private volatile Queue<UUID> earlyIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong buildingInsertions = new AtomicLong();
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+    // Reason for the next rebuild, set until one starts: a build that is already running may
+    // have read the IDs before what prompted the request, so one more build follows it
+    private final AtomicReference<String> rebuildAgain = new AtomicReference<>();
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        if (enabled && !invalidationBus.isEnabled()) {
+            logger.info("Restaurant ID filter disabled: it needs the invalidation bus to learn of other nodes' restaurants");
+            enabled = false;
+        }
+        invalidationBus.addListener(this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled && rebuildRunning.compareAndSet(false, true)) {
+            rebuild("startup");
+        }
+    }
+
+    /**
+     * False only if the restaurant certainly does not exist
+     */
+    public boolean mightExist(UUID restaurantId) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(restaurantId);
+    }
+
+    /**
+     * Record a restaurant created in the current transaction. The ID is added (and announced
+     * to other nodes) after commit, so no node can see it in the filter before it is readable.
+     */
+    public void addAfterCommit(UUID restaurantId) {
+        addAfterCommit(List.of(restaurantId));
+    }
+
+    public void addAfterCommit(Collection<UUID> restaurantIds) {
+        if (!enabled || restaurantIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addAndPublish(restaurantIds);
+                }
+            });
+        } else {
+            addAndPublish(restaurantIds);
+        }
+    }
+
+    private void addAndPublish(Collection<UUID> restaurantIds) {
+        for (UUID restaurantId : restaurantIds) {
+            add(restaurantId);
+            invalidationBus.publishCreated(restaurantId);
+        }
+    }
+
+    private void add(UUID restaurantId) {
+        Queue<UUID> early = earlyIds;
+        if (early != null) {
+            early.add(restaurantId);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(restaurantId);
+            buildingInsertions.incrementAndGet();
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(restaurantId);
+            // A build in progress is sized from the current count already
+            if (insertions.incrementAndGet() > current.getExpectedInsertions() && next == null) {
+                scheduleRebuild("filter holds more IDs than it was sized for");
+            }
+        }
+    }
+
+    @Override
+    public void onInvalidate(Collection<UUID> restaurantIds) {
+        // Invalidations do not change which restaurants exist
+    }
+
+    @Override
+    public void onInvalidateAll(String reason) {
+        scheduleRebuild(reason);
+    }
+
+    @Override
+    public void onCreated(Collection<UUID> restaurantIds) {
+        if (enabled) {
+            restaurantIds.forEach(this::add);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        BloomFilter current = filter;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", current != null);
+        stats.put("insertions", insertions.get());
+        stats.put("capacity", current == null ? 0 : current.getExpectedInsertions());
+        stats.put("bits", current == null ? 0 : current.getBitCount());
+        stats.put("hashFunctions", current == null ? 0 : current.getHashCount());
+        stats.put("rebuilds", rebuilds.get());
+        return stats;
+    }
+
+    private void scheduleRebuild(String reason) {
+        if (enabled) {
+            rebuildAgain.set(reason);
+            startRequestedRebuild();
+        }
+    }
+
+    // The request is recorded before rebuildRunning is checked, so a build finishing meanwhile
+    // either lets this thread start the next one or sees the request itself
+    private void startRequestedRebuild() {
+        while (rebuildAgain.get() != null && rebuildRunning.compareAndSet(false, true)) {
+            String reason = rebuildAgain.getAndSet(null);
+            if (reason != null) {
+                CompletableFuture.runAsync(() -> rebuild(reason));
+                return;
+            }
+            // Taken by a build that has finished since; look again
+            rebuildRunning.set(false);
+        }
+    }
+
+    // Caller has set rebuildRunning
+    private void rebuild(String reason) {
+        try {
+            long start = System.nanoTime();
+            long capacity = Math.max(expectedRestaurants,
+                    2 * ReplicaDataSource.onPrimary(() -> restaurantRepository.count()));
+            BloomFilter next = new BloomFilter(capacity, falsePositiveRate);
+            buildingInsertions.set(0);
+            building = next;
+            Queue<UUID> early = earlyIds;
+            earlyIds = null;
+            if (early != null) {
+                // IDs queued after this point were committed before the stream below starts
+                early.forEach(next::add);
+            }
+
+            long loaded = ReplicaDataSource.onPrimary(() -> readOnlyTransaction.execute(status -> {
+                try (Stream<UUID> restaurantIds = restaurantRepository.streamAllRestaurantIds()) {
+                    long count = 0;
+                    for (UUID restaurantId : (Iterable<UUID>) restaurantIds::iterator) {
+                        next.add(restaurantId);
+                        count++;
+                    }
+                    return count;
+                }
+            }));
+
+            insertions.set(loaded + buildingInsertions.get());
+            filter = next;
+            building = null;
+            rebuilds.incrementAndGet();
+            logger.info("Restaurant ID filter built with {} IDs (capacity {}, {} KB) in {} ms: {}",
+                    loaded, capacity, next.getBitCount() / 8192, (System.nanoTime() - start) / 1_000_000, reason);
+        } catch (Exception e) {
+            building = null;
+            logger.error("Could not build restaurant ID filter ({}): {}", reason, e.getMessage());
+        } finally {
+            rebuildRunning.set(false);
+        }
+        startRequestedRebuild();
+    }
+}
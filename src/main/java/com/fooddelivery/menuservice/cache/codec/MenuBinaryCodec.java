@@ -0,0 +1,310 @@
+package com.fooddelivery.menuservice.cache.codec;
+
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact, versioned binary encoding of a RestaurantDTO.
+ *
+ * Layout: MAGIC, FORMAT_VERSION, flags, [uncompressed length if compressed], body.
+ * UUIDs are written as two longs, prices as a scale byte plus an unscaled long,
+ * and the per-item booleans are packed into a single flags byte.
+ * Bodies larger than the compression threshold are deflated.
+ *
+ * Decoding validates every length against the bytes that remain, so a corrupt or truncated
+ * entry fails with IllegalArgumentException rather than an arbitrary runtime exception.
+ */
+public class MenuBinaryCodec {
+
+    /** First byte of every binary entry; never the first byte of a JSON document */
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int ITEM_HAS_ID = 1;
+    private static final int ITEM_HAS_NAME = 1 << 1;
+    private static final int ITEM_HAS_PRICE = 1 << 2;
+    private static final int ITEM_HAS_AVAILABILITY = 1 << 3;
+    private static final int ITEM_AVAILABLE = 1 << 4;
+    private static final int ITEM_HAS_VEG = 1 << 5;
+    private static final int ITEM_VEG = 1 << 6;
+
+    // Worst-case deflate expansion ratio, to bound the uncompressed length of an entry
+    private static final int MAX_INFLATE_RATIO = 1032;
+
+    private final int compressionThreshold;
+
+    /**
+     * @param compressionThreshold body size in bytes above which entries are deflated; 0 or less disables compression
+     */
+    public MenuBinaryCodec(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public static boolean isBinary(byte[] bytes) {
+        return bytes != null && bytes.length > 0 && bytes[0] == MAGIC;
+    }
+
+    /**
+     * @throws ArithmeticException if a price does not fit a scale byte and an unscaled long
+     */
+    public byte[] encode(RestaurantDTO restaurant) {
+        byte[] body = encodeBody(restaurant);
+
+        if (compressionThreshold > 0 && body.length > compressionThreshold) {
+            byte[] compressed = deflate(body);
+            if (compressed.length < body.length) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length + 8);
+                out.write(MAGIC);
+                out.write(FORMAT_VERSION);
+                out.write(FLAG_COMPRESSED);
+                writeVarInt(out, body.length);
+                out.write(compressed, 0, compressed.length);
+                return out.toByteArray();
+            }
+        }
+
+        byte[] entry = new byte[body.length + 3];
+        entry[0] = MAGIC;
+        entry[1] = FORMAT_VERSION;
+        entry[2] = 0;
+        System.arraycopy(body, 0, entry, 3, body.length);
+        return entry;
+    }
+
+    public RestaurantDTO decode(byte[] bytes) {
+        if (!isBinary(bytes) || bytes.length < 3) {
+            throw new IllegalArgumentException("Not a binary menu entry");
+        }
+        if (bytes[1] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary menu format version: " + bytes[1]);
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 3, bytes.length - 3);
+            if ((bytes[2] & FLAG_COMPRESSED) != 0) {
+                int length = readVarInt(buffer);
+                if (length < 0 || (long) length > (long) buffer.remaining() * MAX_INFLATE_RATIO) {
+                    throw new IllegalArgumentException("Invalid uncompressed length in binary menu entry: " + length);
+                }
+                buffer = ByteBuffer.wrap(inflate(bytes, buffer.position(), buffer.remaining(), length));
+            }
+            return decodeBody(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary menu entry", e);
+        }
+    }
+
+    private byte[] encodeBody(RestaurantDTO restaurant) {
+        List<MenuItemDTO> items = restaurant.getMenuItems();
+        int itemCount = items == null ? 0 : items.size();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + itemCount * 48);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try {
+            writeUuid(out, restaurant.getRestaurantId());
+            writeString(out, restaurant.getName());
+            writeString(out, restaurant.getAddress());
+            writeVarInt(out, items == null ? 0 : items.size() + 1);
+
+            for (int i = 0; i < itemCount; i++) {
+                MenuItemDTO item = items.get(i);
+                int flags = 0;
+                if (item.getMenuId() != null) flags |= ITEM_HAS_ID;
+                if (item.getName() != null) flags |= ITEM_HAS_NAME;
+                if (item.getPrice() != null) flags |= ITEM_HAS_PRICE;
+                if (item.getAvailability() != null) {
+                    flags |= ITEM_HAS_AVAILABILITY;
+                    if (item.getAvailability()) flags |= ITEM_AVAILABLE;
+                }
+                if (item.getVeg() != null) {
+                    flags |= ITEM_HAS_VEG;
+                    if (item.getVeg()) flags |= ITEM_VEG;
+                }
+                out.writeByte(flags);
+
+                if (item.getMenuId() != null) {
+                    out.writeLong(item.getMenuId().getMostSignificantBits());
+                    out.writeLong(item.getMenuId().getLeastSignificantBits());
+                }
+                if (item.getName() != null) {
+                    byte[] name = item.getName().getBytes(StandardCharsets.UTF_8);
+                    writeVarInt(out, name.length);
+                    out.write(name);
+                }
+                if (item.getPrice() != null) {
+                    BigDecimal price = item.getPrice();
+                    if (price.scale() < Byte.MIN_VALUE || price.scale() > Byte.MAX_VALUE) {
+                        throw new ArithmeticException("Price scale out of range: " + price.scale());
+                    }
+                    out.writeByte(price.scale());
+                    out.writeLong(price.unscaledValue().longValueExact());
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private RestaurantDTO decodeBody(ByteBuffer in) {
+        RestaurantDTO restaurant = new RestaurantDTO();
+        restaurant.setRestaurantId(readUuid(in));
+        restaurant.setName(readString(in));
+        restaurant.setAddress(readString(in));
+
+        int count = readVarInt(in);
+        if (count == 0) {
+            return restaurant;
+        }
+        int itemCount = count - 1;
+        // Every item takes at least its flags byte
+        if (itemCount < 0 || itemCount > in.remaining()) {
+            throw new IllegalArgumentException("Invalid item count in binary menu entry: " + itemCount);
+        }
+        List<MenuItemDTO> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            int flags = in.get() & 0xFF;
+            MenuItemDTO item = new MenuItemDTO();
+            if ((flags & ITEM_HAS_ID) != 0) {
+                item.setMenuId(new UUID(in.getLong(), in.getLong()));
+            }
+            if ((flags & ITEM_HAS_NAME) != 0) {
+                item.setName(readUtf8(in, readVarInt(in)));
+            }
+            if ((flags & ITEM_HAS_PRICE) != 0) {
+                int scale = in.get();
+                item.setPrice(BigDecimal.valueOf(in.getLong(), scale));
+            }
+            item.setAvailability((flags & ITEM_HAS_AVAILABILITY) != 0 ? (flags & ITEM_AVAILABLE) != 0 : null);
+            item.setVeg((flags & ITEM_HAS_VEG) != 0 ? (flags & ITEM_VEG) != 0 : null);
+            items.add(item);
+        }
+        restaurant.setMenuItems(items);
+        return restaurant;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeBoolean(uuid != null);
+        if (uuid != null) {
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(ByteBuffer in) {
+        return in.get() != 0 ? new UUID(in.getLong(), in.getLong()) : null;
+    }
+
+    // Length is written +1 so that 0 can mark null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        return readUtf8(in, length - 1);
+    }
+
+    private static String readUtf8(ByteBuffer in, int length) {
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Invalid string length in binary menu entry: " + length);
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeVarInt(OutputStream out, int value) {
+        try {
+            while ((value & ~0x7F) != 0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in binary menu entry");
+    }
+
+    private static byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                out.write(chunk, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] source, int offset, int length, int uncompressedLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(source, offset, length);
+            byte[] body = new byte[uncompressedLength];
+            int read = 0;
+            // Inflate to the end of the stream, so a truncated checksum or a wrong length is caught
+            while (!inflater.finished()) {
+                int n = inflater.inflate(body, read, uncompressedLength - read);
+                read += n;
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary() || read == uncompressedLength)) {
+                    break;
+                }
+            }
+            if (read != uncompressedLength || !inflater.finished()) {
+                throw new IllegalArgumentException("Corrupt compressed menu entry");
+            }
+            return body;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed menu entry", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fooddelivery.menuservice.cache.codec;
+
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Redis value serializer for the L2 menu cache.
+ *
+ * In "binary" mode RestaurantDTOs are written with {@link MenuBinaryCodec}; everything else,
+ * and every value in "json" mode, goes through GenericJackson2JsonRedisSerializer.
+ * Reads detect the format from the first byte, so both modes can read entries written
+ * by the other while a rollout (or rollback) is in progress.
+ * Negative cache entries ({@link NotFoundMarker}) are a single 0x00 byte, which is
+ * neither valid JSON nor a binary entry.
+ */
+public class MenuRedisSerializer implements RedisSerializer<Object> {
+
+    public enum Codec { JSON, BINARY }
+
+    static final byte[] NOT_FOUND_BYTES = {0x00};
+
+    private final Codec codec;
+    private final MenuBinaryCodec binaryCodec;
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+    public MenuRedisSerializer(Codec codec, int compressionThreshold) {
+        this.codec = codec;
+        this.binaryCodec = new MenuBinaryCodec(compressionThreshold);
+    }
+
+    public Codec getCodec() {
+        return codec;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == NotFoundMarker.INSTANCE) {
+            return NOT_FOUND_BYTES.clone();
+        }
+        if (codec == Codec.BINARY && value instanceof RestaurantDTO restaurant) {
+            try {
+                return binaryCodec.encode(restaurant);
+            } catch (ArithmeticException e) {
+                // Price does not fit a scaled long; keep the entry readable as JSON
+                return jsonSerializer.serialize(value);
+            }
+        }
+        return jsonSerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length == 1 && bytes[0] == NOT_FOUND_BYTES[0]) {
+            return NotFoundMarker.INSTANCE;
+        }
+        if (MenuBinaryCodec.isBinary(bytes)) {
+            try {
+                return binaryCodec.decode(bytes);
+            } catch (IllegalArgumentException e) {
+                throw new SerializationException("Could not decode binary menu entry: " + e.getMessage(), e);
+            }
+        }
+        return jsonSerializer.deserialize(bytes);
+    }
+}
@@ -0,0 +1,9 @@
+package com.fooddelivery.menuservice.cache.codec;
+
+/**
+ * L2 value for a restaurant ID that is known not to exist (negative cache entry).
+ * Stored as the single byte {@link MenuRedisSerializer#NOT_FOUND_BYTES} in either codec.
+ */
+public enum NotFoundMarker {
+    INSTANCE
+}
@@ -1,43 +1,312 @@
 package com.fooddelivery.menuservice.config;
 
+import com.fooddelivery.menuservice.cache.CompactMenu;
+import com.fooddelivery.menuservice.cache.HotKeyTracker;
+import com.fooddelivery.menuservice.cache.L2ShardRouter;
+import com.fooddelivery.menuservice.cache.MenuWeigher;
+import com.fooddelivery.menuservice.cache.OffHeapMenuStore;
+import com.fooddelivery.menuservice.cache.codec.MenuRedisSerializer;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.ProtocolKeyword;
+import io.lettuce.core.protocol.RedisCommand;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    // L2 menu entries and their hot-key copies (CacheService), not the invalidation bus keys
+    private static final String MENU_KEY_PATTERN = "restaurant:menu:????????-????-????-????-????????????*";
+
+    /**
+     * Lettuce connection from spring.data.redis.* (host, port, database, credentials, client name,
+     * connect timeout). spring.data.redis.timeout is the ceiling for every command; cache reads
+     * (GET, MGET) and writes (SET, SETEX) time out sooner, after cache.redis.read-timeout and
+     * cache.redis.write-timeout, so a degraded Redis costs an L1 miss at most the read budget.
+     * Commands issued while disconnected fail immediately instead of queueing for a reconnect.
+     * Embedded Redis must be up before the first client (e.g. the invalidation bus) connects.
+     */
+    @Bean
+    @DependsOn("embeddedRedisConfig")
+    public RedisConnectionFactory redisConnectionFactory(
+            RedisProperties properties,
+            @Value("${cache.redis.read-timeout:100ms}") Duration readTimeout,
+            @Value("${cache.redis.write-timeout:250ms}") Duration writeTimeout) {
+        return lettuceConnectionFactory(properties.getHost(), properties.getPort(), properties, readTimeout, writeTimeout);
+    }
+
+    // Connection to one Redis node, with the database, credentials and timeouts of spring.data.redis.*
+    private static LettuceConnectionFactory lettuceConnectionFactory(String host, int port, RedisProperties properties,
+                                                                     Duration readTimeout, Duration writeTimeout) {
+        RedisStandaloneConfiguration server = new RedisStandaloneConfiguration(host, port);
+        server.setDatabase(properties.getDatabase());
+        server.setUsername(properties.getUsername());
+        if (properties.getPassword() != null) {
+            server.setPassword(properties.getPassword());
+        }
+
+        Duration commandTimeout = properties.getTimeout() != null
+                ? properties.getTimeout() : RedisURI.DEFAULT_TIMEOUT_DURATION;
+        SocketOptions.Builder socketOptions = SocketOptions.builder();
+        if (properties.getConnectTimeout() != null) {
+            socketOptions.connectTimeout(properties.getConnectTimeout());
+        }
+        ClientOptions clientOptions = ClientOptions.builder()
+                .socketOptions(socketOptions.build())
+                .timeoutOptions(TimeoutOptions.builder()
+                        .timeoutSource(new CacheCommandTimeouts(commandTimeout, readTimeout, writeTimeout))
+                        .build())
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build();
+
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder client = LettuceClientConfiguration.builder()
+                .commandTimeout(commandTimeout)
+                .clientOptions(clientOptions);
+        if (properties.getClientName() != null) {
+            client.clientName(properties.getClientName());
+        }
+        return new LettuceConnectionFactory(server, client.build());
+    }
+
+    // Per-command timeouts: the cache read and write budgets, the command timeout for the rest
+    private static final class CacheCommandTimeouts extends TimeoutOptions.TimeoutSource {
+        private final long defaultMillis;
+        private final long readMillis;
+        private final long writeMillis;
+
+        private CacheCommandTimeouts(Duration commandTimeout, Duration readTimeout, Duration writeTimeout) {
+            this.defaultMillis = commandTimeout.toMillis();
+            this.readMillis = readTimeout.toMillis();
+            this.writeMillis = writeTimeout.toMillis();
+        }
+
+        @Override
+        public long getTimeout(RedisCommand<?, ?, ?> command) {
+            ProtocolKeyword type = command.getType();
+            if (type == CommandType.GET || type == CommandType.MGET) {
+                return readMillis;
+            }
+            if (type == CommandType.SET || type == CommandType.SETEX) {
+                return writeMillis;
+            }
+            return defaultMillis;
+        }
+    }
+
+    /**
+     * L2 value codec: "json" (GenericJackson2JsonRedisSerializer) or "binary" (MenuBinaryCodec).
+     * Either mode reads entries written by the other.
+     */
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
-        return new LettuceConnectionFactory("localhost", 6379);
+    public MenuRedisSerializer menuRedisSerializer(
+            @Value("${cache.redis.codec:json}") String codec,
+            @Value("${cache.redis.compression-threshold:4096}") int compressionThreshold) {
+        return new MenuRedisSerializer(MenuRedisSerializer.Codec.valueOf(codec.trim().toUpperCase()),
+                compressionThreshold);
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       MenuRedisSerializer menuRedisSerializer) {
+        return menuRedisTemplate(connectionFactory, menuRedisSerializer);
+    }
+
+    private static RedisTemplate<String, Object> menuRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                                   MenuRedisSerializer menuRedisSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(menuRedisSerializer);
 
         template.afterPropertiesSet();
         return template;
     }
 
+    /**
+     * Reactive template over the same Lettuce connection factory and value codec,
+     * for the non-blocking read path
+     */
     @Bean
-    public com.github.benmanes.caffeine.cache.Cache<String, Object> caffeineCache() {
-        return Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(Duration.ofMinutes(30))
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                                       MenuRedisSerializer menuRedisSerializer) {
+        return menuReactiveRedisTemplate(connectionFactory, menuRedisSerializer);
+    }
+
+    private static ReactiveRedisTemplate<String, Object> menuReactiveRedisTemplate(
+            RedisConnectionFactory connectionFactory, MenuRedisSerializer menuRedisSerializer) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(menuRedisSerializer)
                 .build();
+        return new ReactiveRedisTemplate<>((ReactiveRedisConnectionFactory) connectionFactory, context);
+    }
+
+    /**
+     * L2 shards from cache.redis.shards.nodes (host:port, comma-separated), keys spread over
+     * them by consistent hashing. The node of spring.data.redis uses the templates above, every
+     * other node gets its own connection with the same settings. Without nodes L2 is that one
+     * node. The invalidation bus and other Redis users stay on spring.data.redis.
+     */
+    @Bean
+    public L2ShardRouter l2ShardRouter(
+            RedisProperties properties,
+            RedisTemplate<String, Object> redisTemplate,
+            ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+            MenuRedisSerializer menuRedisSerializer,
+            MeterRegistry meterRegistry,
+            @Value("${cache.redis.shards.nodes:}") List<String> nodes,
+            @Value("${cache.redis.shards.virtual-nodes:160}") int virtualNodes,
+            @Value("${cache.redis.shards.failure-threshold:3}") int failureThreshold,
+            @Value("${cache.redis.shards.health-check-interval:1s}") Duration healthCheckInterval,
+            @Value("${cache.redis.shards.max-missed-deletes:100000}") int maxMissedDeletes,
+            @Value("${cache.redis.read-timeout:100ms}") Duration readTimeout,
+            @Value("${cache.redis.write-timeout:250ms}") Duration writeTimeout) {
+        String mainNode = properties.getHost() + ":" + properties.getPort();
+        List<L2ShardRouter.Shard> shards = new ArrayList<>();
+        for (String node : nodes) {
+            String name = node.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (name.equals(mainNode)) {
+                shards.add(new L2ShardRouter.Shard(name, redisTemplate, reactiveRedisTemplate, null));
+                continue;
+            }
+            int colon = name.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("cache.redis.shards.nodes entries must be host:port: " + name);
+            }
+            LettuceConnectionFactory connectionFactory = lettuceConnectionFactory(name.substring(0, colon),
+                    Integer.parseInt(name.substring(colon + 1)), properties, readTimeout, writeTimeout);
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            shards.add(new L2ShardRouter.Shard(name,
+                    menuRedisTemplate(connectionFactory, menuRedisSerializer),
+                    menuReactiveRedisTemplate(connectionFactory, menuRedisSerializer),
+                    connectionFactory));
+        }
+        if (shards.isEmpty()) {
+            shards.add(new L2ShardRouter.Shard(mainNode, redisTemplate, reactiveRedisTemplate, null));
+        }
+        return new L2ShardRouter(shards, virtualNodes, MENU_KEY_PATTERN, failureThreshold,
+                healthCheckInterval, maxMissedDeletes, meterRegistry);
+    }
+
+    /**
+     * Subscriber connection for the cross-node L1 invalidation bus
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * L1 cache built from cache.caffeine.spec. Its expireAfterWrite is the hard TTL;
+     * with cache.refresh.enabled the soft TTL is cache.refresh.soft-ttl.
+     * Unless the spec sets maximumSize or maximumWeight, L1 is bounded by cache.l1.max-weight:
+     * the estimated retained bytes of the cached menus (MenuWeigher), as a size ("64MB") or a
+     * share of the maximum heap ("10%"). The total is exported as menu.cache.l1.weight.
+     * Menus of hot restaurants (HotKeyTracker) weigh 0 there, so they are not evicted for size.
+     * Stats are always recorded and exported as cache.* meters with cache=restaurantMenus.
+     * With cache.offheap.enabled, menus evicted for size are handed to the off-heap tier.
+     */
+    @Bean
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> caffeineCache(
+            @Value("${cache.caffeine.spec:expireAfterWrite=30m}") String spec,
+            @Value("${cache.l1.max-weight:64MB}") String maxWeight,
+            MeterRegistry meterRegistry,
+            OffHeapMenuStore offHeapMenuStore,
+            HotKeyTracker hotKeyTracker) {
+        Caffeine<Object, Object> builder = Caffeine.from(spec);
+        if (!spec.contains("recordStats")) {
+            builder.recordStats();
+        }
+        if (!spec.contains("maximumSize") && !spec.contains("maximumWeight")) {
+            builder.maximumWeight(l1MaxWeightBytes(maxWeight)).weigher(new MenuWeigher(hotKeyTracker::isHot));
+        }
+        if (offHeapMenuStore.isEnabled()) {
+            builder.evictionListener((Object key, Object value, RemovalCause cause) -> {
+                if (cause == RemovalCause.SIZE && value instanceof CompactMenu compact) {
+                    offHeapMenuStore.put(compact.toRestaurantDTO());
+                } else if (cause == RemovalCause.SIZE && value instanceof RestaurantDTO restaurant) {
+                    offHeapMenuStore.put(restaurant);
+                }
+            });
+        }
+        com.github.benmanes.caffeine.cache.Cache<String, Object> cache = builder.build();
+        cache.policy().eviction()
+                .filter(Policy.Eviction::isWeighted)
+                .ifPresent(eviction -> Gauge.builder("menu.cache.l1.weight", eviction,
+                                weighted -> weighted.weightedSize().orElse(0L))
+                        .description("Estimated retained bytes of the menus held in L1")
+                        .baseUnit("bytes")
+                        .register(meterRegistry));
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "restaurantMenus");
+    }
+
+    // "64MB", "512KB" etc., or a percentage of the maximum heap such as "10%"
+    static long l1MaxWeightBytes(String maxWeight) {
+        String value = maxWeight.trim();
+        if (value.endsWith("%")) {
+            double percent = Double.parseDouble(value.substring(0, value.length() - 1).trim());
+            if (percent <= 0 || percent > 100) {
+                throw new IllegalArgumentException("cache.l1.max-weight must be between 0% and 100%: " + maxWeight);
+            }
+            return (long) (Runtime.getRuntime().maxMemory() * percent / 100);
+        }
+        return DataSize.parse(value).toBytes();
+    }
+
+    /**
+     * Bounded pool for stale-while-revalidate reloads. Tasks beyond the queue
+     * capacity are rejected and the stale entry is simply served again.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor menuRefreshExecutor(
+            @Value("${cache.refresh.threads:2}") int threads,
+            @Value("${cache.refresh.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("menu-refresh-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
     }
 }
\ No newline at end of file
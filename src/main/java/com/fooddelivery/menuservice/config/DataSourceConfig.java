@@ -0,0 +1,83 @@
+package com.fooddelivery.menuservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary/replica DataSource, with menu.datasource.replicas.enabled=true.
+ *
+ * The application DataSource is a LazyConnectionDataSourceProxy over the primary pool
+ * (spring.datasource.*, spring.datasource.hikari.*). It takes the physical connection only when
+ * the first statement runs, when the transaction's read-only flag is known: read-only
+ * transactions then get a connection from ReplicaDataSource, everything else from the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "menu.datasource.replicas.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${menu.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${menu.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${menu.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${menu.datasource.replicas.connection-timeout:1s}") Duration connectionTimeout,
+            @Value("${menu.datasource.replicas.lag-query:}") String lagQuery,
+            @Value("${menu.datasource.replicas.max-lag:5s}") Duration maxLag,
+            @Value("${menu.datasource.replicas.check-interval:2s}") Duration checkInterval) {
+        MicrometerMetricsTrackerFactory poolMetrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("menu-primary");
+        primary.setMetricsTrackerFactory(poolMetrics);
+
+        // Bound rather than injected so that indexed entries (urls[0]=...) may contain commas
+        List<String> urls = Binder.get(environment)
+                .bind("menu.datasource.replicas.urls", Bindable.listOf(String.class))
+                .orElse(List.of());
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("menu-replica-" + replicas.size());
+            replica.setJdbcUrl(url.trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            // Start even if the replica is down; the health check keeps it out of rotation
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(poolMetrics);
+            replicas.add(replica);
+        }
+        return new ReplicaDataSource(primary, replicas, lagQuery, maxLag, checkInterval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaDataSource.getPrimary());
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -2,12 +2,15 @@ package com.fooddelivery.menuservice.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import redis.embedded.RedisServer;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class EmbeddedRedisConfig {
@@ -15,6 +18,12 @@ public class EmbeddedRedisConfig {
     private static final Logger logger = LoggerFactory.getLogger(EmbeddedRedisConfig.class);
     private RedisServer redisServer;
 
+    // More local servers, e.g. for L2 shards (cache.redis.shards.nodes)
+    @Value("${embedded.redis.extra-ports:}")
+    private List<Integer> extraPorts;
+
+    private final List<RedisServer> extraServers = new ArrayList<>();
+
     @PostConstruct
     public void startRedis() throws IOException {
         try {
@@ -26,10 +35,27 @@ public class EmbeddedRedisConfig {
         } catch (Exception e) {
             logger.warn("Could not start embedded Redis server: {}. Redis caching may not work.", e.getMessage());
         }
+        for (Integer port : extraPorts) {
+            try {
+                RedisServer server = RedisServer.builder()
+                        .port(port)
+                        .build();
+                server.start();
+                extraServers.add(server);
+                logger.info("Embedded Redis server started successfully on port: {}", port);
+            } catch (Exception e) {
+                logger.warn("Could not start embedded Redis server on port {}: {}", port, e.getMessage());
+            }
+        }
     }
 
     @PreDestroy
     public void stopRedis() {
+        for (RedisServer server : extraServers) {
+            if (server.isActive()) {
+                server.stop();
+            }
+        }
         if (redisServer != null && redisServer.isActive()) {
             redisServer.stop();
             logger.info("Embedded Redis server stopped");
@@ -0,0 +1,242 @@
+package com.fooddelivery.menuservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-only side of the menu DataSource: connections from a pool of replicas.
+ *
+ * DataSourceConfig sets it as the read-only DataSource of a LazyConnectionDataSourceProxy, so
+ * read-only transactions get their connection here and everything else goes to the primary.
+ * Replicas are used round-robin among those currently healthy. Every check-interval one
+ * connection per replica is validated and, if a lag query is configured, a replica more than
+ * max-lag behind is taken out until it catches up. A replica that cannot give a connection
+ * during a request is taken out at once. Without a healthy replica, or inside onPrimary(...),
+ * the primary is used.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    public ReplicaDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools, String lagQuery,
+                             Duration maxLag, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.maxLag = maxLag;
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool);
+            replicas.add(replica);
+            Gauge.builder("menu.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica currently takes read-only transactions")
+                    .tag("replica", pool.getPoolName())
+                    .register(meterRegistry);
+            Gauge.builder("menu.datasource.replica.lag", replica, r -> r.lagMillis / 1000.0)
+                    .description("Replica lag reported by the last health check")
+                    .baseUnit("seconds")
+                    .tag("replica", pool.getPoolName())
+                    .register(meterRegistry);
+            FunctionCounter.builder("menu.datasource.replica.connections", replica.connections, LongAdder::sum)
+                    .description("Connections handed out for read-only transactions")
+                    .tag("replica", pool.getPoolName())
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("menu.datasource.replica.fallbacks", primaryFallbacks, LongAdder::sum)
+                .description("Read-only transactions served by the primary for want of a healthy replica")
+                .register(meterRegistry);
+
+        // First check before any request, so replicas that are down are never tried
+        checkReplicas();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkReplicas,
+                checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run work with every connection it opens taken from the primary, e.g. to read a
+     * restaurant just written
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_PINNED.remove();
+            } else {
+                PRIMARY_PINNED.set(previous);
+            }
+        }
+    }
+
+    HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(HikariDataSource::getConnection);
+    }
+
+    // Same pool selection; the pools decide whether they accept other credentials
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(pool -> pool.getConnection(username, password));
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        if (PRIMARY_PINNED.get() != null) {
+            pinned.increment();
+            return connector.connect(primary);
+        }
+        int start = next.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = connector.connect(replica.pool);
+                replica.connections.increment();
+                return connection;
+            } catch (SQLFeatureNotSupportedException e) {
+                // A call the pool does not support says nothing about the replica's health
+                throw e;
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+        primaryFallbacks.increment();
+        return connector.connect(primary);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", true);
+        stats.put("maxLagMillis", maxLag.toMillis());
+        stats.put("pinnedToPrimary", pinned.sum());
+        stats.put("primaryFallbacks", primaryFallbacks.sum());
+        List<Map<String, Object>> replicaStats = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", replica.pool.getPoolName());
+            entry.put("url", replica.pool.getJdbcUrl());
+            entry.put("healthy", replica.healthy);
+            entry.put("lagMillis", replica.lagMillis);
+            entry.put("connections", replica.connections.sum());
+            entry.put("lastError", replica.lastError);
+            replicaStats.add(entry);
+        }
+        stats.put("replicas", replicaStats);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                if (!connection.isValid(1)) {
+                    markDown(replica, "connection is not valid");
+                    continue;
+                }
+                long lagMillis = lagQuery == null ? 0 : queryLagMillis(connection);
+                replica.lagMillis = lagMillis;
+                if (lagMillis > maxLag.toMillis()) {
+                    markDown(replica, "lag " + lagMillis + " ms is over " + maxLag.toMillis() + " ms");
+                } else {
+                    markUp(replica);
+                }
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    // Seconds behind the primary, from the first column of the lag query; no row or NULL is no lag
+    private long queryLagMillis(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(1);
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                return rs.next() ? Math.max(0, Math.round(rs.getDouble(1) * 1000)) : 0;
+            }
+        }
+    }
+
+    private void markDown(Replica replica, String reason) {
+        replica.lastError = reason;
+        if (replica.healthy) {
+            replica.healthy = false;
+            logger.warn("Replica {} taken out of rotation: {}", replica.pool.getPoolName(), reason);
+        }
+    }
+
+    private void markUp(Replica replica) {
+        replica.lastError = null;
+        if (!replica.healthy) {
+            replica.healthy = true;
+            logger.info("Replica {} back in rotation (lag {} ms)", replica.pool.getPoolName(), replica.lagMillis);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(HikariDataSource pool) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private final LongAdder connections = new LongAdder();
+        // Starts healthy so the first check logs only replicas that are down
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+        private volatile String lastError;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
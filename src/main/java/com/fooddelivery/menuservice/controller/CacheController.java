@@ -0,0 +1,151 @@
+package com.fooddelivery.menuservice.controller;
+
+import com.fooddelivery.menuservice.cache.CacheInvalidationBus;
+import com.fooddelivery.menuservice.cache.HotKeyTracker;
+import com.fooddelivery.menuservice.cache.L2HedgePolicy;
+import com.fooddelivery.menuservice.cache.L2ShardRouter;
+import com.fooddelivery.menuservice.cache.MenuCacheSnapshot;
+import com.fooddelivery.menuservice.cache.MenuFilterIndex;
+import com.fooddelivery.menuservice.cache.MenuLoadCoalescer;
+import com.fooddelivery.menuservice.cache.MenuPatchCoalescer;
+import com.fooddelivery.menuservice.cache.RedisCircuitBreaker;
+import com.fooddelivery.menuservice.cache.RestaurantIdFilter;
+import com.fooddelivery.menuservice.config.ReplicaDataSource;
+import com.fooddelivery.menuservice.dto.ApiResponse;
+import com.fooddelivery.menuservice.service.CacheService;
+import com.fooddelivery.menuservice.service.MenuService;
+import com.fooddelivery.menuservice.service.ReadYourWrites;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+public class CacheController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+
+    @Autowired
+    private MenuLoadCoalescer menuLoadCoalescer;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private RestaurantIdFilter restaurantIdFilter;
+
+    @Autowired
+    private MenuPatchCoalescer menuPatchCoalescer;
+
+    @Autowired
+    private MenuFilterIndex menuFilterIndex;
+
+    @Autowired
+    private MenuCacheSnapshot menuCacheSnapshot;
+
+    @Autowired
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Autowired
+    private L2HedgePolicy l2HedgePolicy;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    private L2ShardRouter l2ShardRouter;
+
+    // Only with menu.datasource.replicas.enabled=true
+    @Autowired(required = false)
+    private ReplicaDataSource replicaDataSource;
+
+    /**
+     * Cache statistics
+     * GET /api/v1/cache/stats
+     */
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheStats() {
+        logger.debug("Cache stats requested");
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Object> tiers = new LinkedHashMap<>(cacheService.getTierStats());
+        tiers.put("database", menuService.getDatabaseStats());
+        stats.put("tiers", tiers);
+        stats.put("singleFlight", menuLoadCoalescer.getStats());
+        stats.put("refresh", menuService.getRefreshStats());
+        stats.put("invalidation", cacheInvalidationBus.getStats());
+        stats.put("idFilter", restaurantIdFilter.getStats());
+        stats.put("patch", menuPatchCoalescer.getStats());
+        stats.put("filterIndex", menuFilterIndex.getStats());
+        stats.put("snapshot", menuCacheSnapshot.getStats());
+        stats.put("redisCircuit", redisCircuitBreaker.getStats());
+        stats.put("l2Shards", l2ShardRouter.getStats());
+        stats.put("hedge", l2HedgePolicy.getStats());
+        stats.put("replicas", replicaDataSource != null ? replicaDataSource.getStats() : Map.of("enabled", false));
+        stats.put("readYourWrites", readYourWrites.getStats());
+        stats.put("hotKeys", hotKeyTracker.getStats());
+
+        return ResponseEntity.ok(ApiResponse.success("Cache stats retrieved successfully", stats));
+    }
+
+    /**
+     * L1 weight distribution (estimated retained bytes per menu) and the heaviest entries
+     * GET /api/v1/cache/l1/weights?top=10
+     */
+    @GetMapping(value = "/l1/weights", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getL1Weights(
+            @RequestParam(defaultValue = "10") int top) {
+        logger.debug("L1 weight distribution requested");
+
+        return ResponseEntity.ok(ApiResponse.success("L1 weight distribution retrieved successfully",
+                cacheService.getL1WeightDistribution(Math.max(0, top))));
+    }
+
+    /**
+     * Most read restaurants on this node (decayed, sampled estimates) and whether they are hot:
+     * pinned in L1 and read from replicated L2 copies
+     * GET /api/v1/cache/hot-keys?limit=20
+     */
+    @GetMapping(value = "/hot-keys", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getHotKeys(
+            @RequestParam(defaultValue = "20") int limit) {
+        logger.debug("Hot keys requested");
+
+        Map<String, Object> hotKeys = new LinkedHashMap<>(hotKeyTracker.getStats());
+        hotKeys.put("top", hotKeyTracker.getTopKeys(Math.max(0, limit)));
+        return ResponseEntity.ok(ApiResponse.success("Hot keys retrieved successfully", hotKeys));
+    }
+
+    /**
+     * Evict a restaurant menu from L2 and from L1 on every node
+     * DELETE /api/v1/cache/{restaurantId}
+     */
+    @DeleteMapping(value = "/{restaurantId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<String>> evictRestaurantMenu(@PathVariable UUID restaurantId) {
+        logger.info("DELETE /api/v1/cache/{} - Evicting cached menu", restaurantId);
+
+        cacheService.clearBothCaches(restaurantId);
+        return ResponseEntity.ok(ApiResponse.success("Cache evicted successfully", restaurantId.toString()));
+    }
+}
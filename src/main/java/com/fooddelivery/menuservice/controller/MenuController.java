@@ -1,19 +1,42 @@
 package com.fooddelivery.menuservice.controller;
 
+import com.fooddelivery.menuservice.cache.EncodedMenuResponse;
+import com.fooddelivery.menuservice.cache.MenuFilterIndex;
+import com.fooddelivery.menuservice.cache.MenuResponseCache;
 import com.fooddelivery.menuservice.dto.ApiResponse;
+import com.fooddelivery.menuservice.dto.BatchMenuRequest;
+import com.fooddelivery.menuservice.dto.BatchMenuResponse;
 import com.fooddelivery.menuservice.dto.CreateRestaurantRequest;
+import com.fooddelivery.menuservice.dto.MenuItemPatchRequest;
+import com.fooddelivery.menuservice.dto.MenuItemPatchResponse;
 import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.fooddelivery.menuservice.dto.RestaurantImportResponse;
+import com.fooddelivery.menuservice.exception.ResourceNotFoundException;
 import com.fooddelivery.menuservice.service.MenuService;
+import com.fooddelivery.menuservice.service.ReactiveMenuService;
+import com.fooddelivery.menuservice.service.RestaurantExportService;
+import com.fooddelivery.menuservice.service.RestaurantImportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/restaurants")
@@ -25,6 +48,21 @@ public class MenuController {
     @Autowired
     private MenuService menuService;
 
+    @Autowired
+    private MenuResponseCache menuResponseCache;
+
+    @Autowired
+    private MenuFilterIndex menuFilterIndex;
+
+    @Autowired
+    private RestaurantImportService restaurantImportService;
+
+    @Autowired
+    private ReactiveMenuService reactiveMenuService;
+
+    @Autowired
+    private RestaurantExportService restaurantExportService;
+
     /**
      * API 1: Add restaurant with menu items
      * POST /api/v1/restaurants
@@ -59,34 +97,237 @@ public class MenuController {
     /**
      * API 2: Get restaurant menu with multi-level caching
      * GET /api/v1/restaurants/{restaurantId}/menu
+     * With cache.response-bytes.enabled the pre-encoded body is written as-is,
+     * with an ETag and 304 Not Modified support.
+     * Optional veg/available filters are applied to the cached menu via MenuFilterIndex.
      */
     @GetMapping(
             value = "/{restaurantId}/menu",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<ApiResponse<RestaurantDTO>> getRestaurantMenu(
-            @PathVariable UUID restaurantId) {
+    public ResponseEntity<?> getRestaurantMenu(
+            @PathVariable UUID restaurantId,
+            @RequestParam(required = false) Boolean veg,
+            @RequestParam(required = false) Boolean available,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        logger.info("GET /api/v1/restaurants/{}/menu - Retrieving menu", restaurantId);
+        logger.debug("GET /api/v1/restaurants/{}/menu - Retrieving menu", restaurantId);
 
         try {
             RestaurantDTO restaurant = menuService.getRestaurantMenu(restaurantId);
+            boolean filtered = veg != null || available != null;
+
+            // Filtered views are encoded per request rather than cached per combination
+            if (filtered) {
+                restaurant = menuFilterIndex.filter(restaurant, veg, available);
+            } else if (menuResponseCache.isEnabled()) {
+                return encodedMenuResponse(menuResponseCache.get(restaurant), ifNoneMatch, acceptEncoding);
+            }
 
             ApiResponse<RestaurantDTO> response = ApiResponse.success(
-                    "Menu retrieved successfully",
+                    MenuResponseCache.MENU_RETRIEVED_MESSAGE,
                     restaurant
             );
 
-            logger.info("Menu retrieved successfully for restaurant: {} with {} items",
+            logger.debug("Menu retrieved successfully for restaurant: {} with {} items",
                     restaurantId, restaurant.getMenuItems().size());
 
             return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            // Expected for unknown IDs; answered as 404 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error retrieving menu for restaurant {}: {}", restaurantId, e.getMessage());
             throw e;
         }
     }
 
+    /**
+     * API 2 (non-blocking): same tiers and response as /menu, but no servlet thread waits on
+     * Redis or the database; L1 hits are answered on the request thread
+     * GET /api/v1/restaurants/{restaurantId}/menu/async
+     */
+    @GetMapping(
+            value = "/{restaurantId}/menu/async",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<ApiResponse<RestaurantDTO>>> getRestaurantMenuAsync(@PathVariable UUID restaurantId) {
+        logger.debug("GET /api/v1/restaurants/{}/menu/async - Retrieving menu", restaurantId);
+
+        return reactiveMenuService.getRestaurantMenu(restaurantId)
+                .map(restaurant -> ResponseEntity.ok(ApiResponse.success(
+                        MenuResponseCache.MENU_RETRIEVED_MESSAGE,
+                        restaurant
+                )));
+    }
+
+    private ResponseEntity<byte[]> encodedMenuResponse(EncodedMenuResponse encoded,
+                                                       String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = encoded.getGzipBody() != null && acceptsGzip(acceptEncoding);
+        String eTag = gzip ? encoded.getGzipETag() : encoded.getETag();
+
+        if (encoded.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.getGzipBody());
+        }
+        return builder.body(encoded.getBody());
+    }
+
+    /**
+     * True if the Accept-Encoding header allows gzip: "gzip" (or "x-gzip"), or failing that
+     * "*", listed with a q-value above 0. "gzip;q=0" refuses gzip even when "*" is accepted.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        double quality = gzipQuality != null ? gzipQuality : anyQuality != null ? anyQuality : 0;
+        return quality > 0;
+    }
+
+    /**
+     * API 3: Get menus for many restaurants in one call
+     * POST /api/v1/restaurants/menus/batch
+     */
+    @PostMapping(
+            value = "/menus/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<ApiResponse<BatchMenuResponse>> getRestaurantMenus(
+            @Valid @RequestBody BatchMenuRequest request) {
+
+        logger.debug("POST /api/v1/restaurants/menus/batch - Retrieving {} menus", request.getRestaurantIds().size());
+
+        Map<UUID, RestaurantDTO> menus = menuService.getRestaurantMenus(request.getRestaurantIds());
+
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID restaurantId : request.getRestaurantIds()) {
+            if (!menus.containsKey(restaurantId) && !notFound.contains(restaurantId)) {
+                notFound.add(restaurantId);
+            }
+        }
+
+        ApiResponse<BatchMenuResponse> response = ApiResponse.success(
+                "Menus retrieved successfully",
+                new BatchMenuResponse(new ArrayList<>(menus.values()), notFound)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * API 4: Patch price and/or availability of many menu items
+     * PATCH /api/v1/restaurants/menu-items
+     */
+    @PatchMapping(
+            value = "/menu-items",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<ApiResponse<MenuItemPatchResponse>> patchMenuItems(
+            @Valid @RequestBody MenuItemPatchRequest request) {
+
+        logger.info("PATCH /api/v1/restaurants/menu-items - Patching {} menu items", request.getItems().size());
+
+        MenuItemPatchResponse result = menuService.patchMenuItems(request.getItems());
+
+        ApiResponse<MenuItemPatchResponse> response = ApiResponse.success(
+                "Menu items updated successfully",
+                result
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * API 5: Bulk import restaurants with menu items from NDJSON, one restaurant per line
+     * POST /api/v1/restaurants/import?warmCache=false
+     */
+    @PostMapping(
+            value = "/import",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<ApiResponse<RestaurantImportResponse>> importRestaurants(
+            InputStream body,
+            @RequestParam(defaultValue = "false") boolean warmCache) throws IOException {
+
+        logger.info("POST /api/v1/restaurants/import - Importing restaurants (warmCache={})", warmCache);
+
+        RestaurantImportResponse result = restaurantImportService.importRestaurants(body, warmCache);
+
+        ApiResponse<RestaurantImportResponse> response = ApiResponse.success(
+                "Restaurants imported",
+                result
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * API 6: Export every restaurant with its menu items as NDJSON, in restaurant ID order
+     * GET /api/v1/restaurants/export?after={restaurantId}&limit=1000
+     * Written to the response while the cursor is read; gzip-encoded if the client accepts it
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportRestaurants(
+            @RequestParam(required = false) UUID after,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        logger.info("GET /api/v1/restaurants/export - Exporting restaurants after {} (limit={}, gzip={})",
+                after, limit, gzip);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            // Closed even if the export fails, which releases the deflater's native memory
+            try (GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 8192)) {
+                restaurantExportService.exportRestaurants(out, after, limit);
+            }
+        } else {
+            OutputStream out = response.getOutputStream();
+            restaurantExportService.exportRestaurants(out, after, limit);
+        }
+    }
+
     /**
      * Health check endpoint
      */
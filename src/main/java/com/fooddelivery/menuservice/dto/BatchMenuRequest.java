@@ -0,0 +1,30 @@
+package com.fooddelivery.menuservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BatchMenuRequest {
+    @NotEmpty(message = "At least one restaurant ID is required")
+    @Size(max = 100, message = "At most 100 restaurant IDs can be requested at once")
+    private List<@NotNull(message = "Restaurant ID must not be null") UUID> restaurantIds;
+
+    // Constructors
+    public BatchMenuRequest() {}
+
+    public BatchMenuRequest(List<UUID> restaurantIds) {
+        this.restaurantIds = restaurantIds;
+    }
+
+    // Getters and Setters
+    public List<UUID> getRestaurantIds() {
+        return restaurantIds;
+    }
+
+    public void setRestaurantIds(List<UUID> restaurantIds) {
+        this.restaurantIds = restaurantIds;
+    }
+}
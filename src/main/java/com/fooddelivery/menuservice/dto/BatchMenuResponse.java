@@ -0,0 +1,34 @@
+package com.fooddelivery.menuservice.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BatchMenuResponse {
+    private List<RestaurantDTO> menus;
+    private List<UUID> notFound;
+
+    // Constructors
+    public BatchMenuResponse() {}
+
+    public BatchMenuResponse(List<RestaurantDTO> menus, List<UUID> notFound) {
+        this.menus = menus;
+        this.notFound = notFound;
+    }
+
+    // Getters and Setters
+    public List<RestaurantDTO> getMenus() {
+        return menus;
+    }
+
+    public void setMenus(List<RestaurantDTO> menus) {
+        this.menus = menus;
+    }
+
+    public List<UUID> getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(List<UUID> notFound) {
+        this.notFound = notFound;
+    }
+}
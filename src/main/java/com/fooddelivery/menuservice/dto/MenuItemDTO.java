@@ -1,6 +1,7 @@
 package com.fooddelivery.menuservice.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -18,6 +19,7 @@ public class MenuItemDTO implements Serializable {
 
     @NotNull(message = "Price is required")
     @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+    @Digits(integer = 5, fraction = 2, message = "Price must have at most 5 integer and 2 fraction digits")
     private BigDecimal price;
 
     @NotNull(message = "Availability status is required")
@@ -0,0 +1,76 @@
+package com.fooddelivery.menuservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Partial update of one menu item; null fields are left unchanged.
+ */
+public class MenuItemPatch {
+    @NotNull(message = "Menu item ID is required")
+    private UUID menuId;
+
+    @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+    @Digits(integer = 5, fraction = 2, message = "Price must have at most 5 integer and 2 fraction digits")
+    private BigDecimal price;
+
+    private Boolean availability;
+
+    // Constructors
+    public MenuItemPatch() {}
+
+    public MenuItemPatch(UUID menuId, BigDecimal price, Boolean availability) {
+        this.menuId = menuId;
+        this.price = price;
+        this.availability = availability;
+    }
+
+    public boolean isEmpty() {
+        return price == null && availability == null;
+    }
+
+    /**
+     * This patch followed by a later one for the same item: the later non-null fields win
+     */
+    public MenuItemPatch mergedWith(MenuItemPatch later) {
+        return new MenuItemPatch(menuId,
+                later.price != null ? later.price : price,
+                later.availability != null ? later.availability : availability);
+    }
+
+    public MenuItemDTO applyTo(MenuItemDTO item) {
+        return new MenuItemDTO(item.getMenuId(), item.getName(),
+                price != null ? price : item.getPrice(),
+                availability != null ? availability : item.getAvailability(),
+                item.getVeg());
+    }
+
+    // Getters and Setters
+    public UUID getMenuId() {
+        return menuId;
+    }
+
+    public void setMenuId(UUID menuId) {
+        this.menuId = menuId;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Boolean getAvailability() {
+        return availability;
+    }
+
+    public void setAvailability(Boolean availability) {
+        this.availability = availability;
+    }
+}
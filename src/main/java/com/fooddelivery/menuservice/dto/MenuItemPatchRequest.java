@@ -0,0 +1,30 @@
+package com.fooddelivery.menuservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class MenuItemPatchRequest {
+    @NotEmpty(message = "At least one menu item patch is required")
+    @Size(max = 1000, message = "At most 1000 menu items can be patched at once")
+    private List<@Valid @NotNull(message = "Menu item patch must not be null") MenuItemPatch> items;
+
+    // Constructors
+    public MenuItemPatchRequest() {}
+
+    public MenuItemPatchRequest(List<MenuItemPatch> items) {
+        this.items = items;
+    }
+
+    // Getters and Setters
+    public List<MenuItemPatch> getItems() {
+        return items;
+    }
+
+    public void setItems(List<MenuItemPatch> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,44 @@
+package com.fooddelivery.menuservice.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class MenuItemPatchResponse {
+    private int updated;
+    private List<UUID> restaurantIds;
+    private List<UUID> notFound;
+
+    // Constructors
+    public MenuItemPatchResponse() {}
+
+    public MenuItemPatchResponse(int updated, List<UUID> restaurantIds, List<UUID> notFound) {
+        this.updated = updated;
+        this.restaurantIds = restaurantIds;
+        this.notFound = notFound;
+    }
+
+    // Getters and Setters
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public List<UUID> getRestaurantIds() {
+        return restaurantIds;
+    }
+
+    public void setRestaurantIds(List<UUID> restaurantIds) {
+        this.restaurantIds = restaurantIds;
+    }
+
+    public List<UUID> getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(List<UUID> notFound) {
+        this.notFound = notFound;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,6 +34,11 @@ public class RestaurantDTO implements Serializable {
         this.menuItems = menuItems;
     }
 
+    // JPQL constructor projection of the restaurant columns; items are set separately
+    public RestaurantDTO(UUID restaurantId, String name, String address) {
+        this(restaurantId, name, address, new ArrayList<>());
+    }
+
     // Getters and Setters
     public UUID getRestaurantId() {
         return restaurantId;
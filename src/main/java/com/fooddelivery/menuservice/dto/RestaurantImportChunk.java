@@ -0,0 +1,89 @@
+package com.fooddelivery.menuservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RestaurantImportChunk {
+    private int chunk;
+    private long firstLine;
+    private long lastLine;
+    private int imported;
+    private int menuItems;
+    private int duplicates;
+    private int failed;
+    private List<String> errors = new ArrayList<>();
+
+    // Constructors
+    public RestaurantImportChunk() {}
+
+    public RestaurantImportChunk(int chunk, long firstLine) {
+        this.chunk = chunk;
+        this.firstLine = firstLine;
+        this.lastLine = firstLine;
+    }
+
+    // Getters and Setters
+    public int getChunk() {
+        return chunk;
+    }
+
+    public void setChunk(int chunk) {
+        this.chunk = chunk;
+    }
+
+    public long getFirstLine() {
+        return firstLine;
+    }
+
+    public void setFirstLine(long firstLine) {
+        this.firstLine = firstLine;
+    }
+
+    public long getLastLine() {
+        return lastLine;
+    }
+
+    public void setLastLine(long lastLine) {
+        this.lastLine = lastLine;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getMenuItems() {
+        return menuItems;
+    }
+
+    public void setMenuItems(int menuItems) {
+        this.menuItems = menuItems;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,85 @@
+package com.fooddelivery.menuservice.dto;
+
+import java.util.List;
+
+public class RestaurantImportResponse {
+    private long lines;
+    private int imported;
+    private int menuItems;
+    private int duplicates;
+    private int failed;
+    private long elapsedMillis;
+    private List<RestaurantImportChunk> chunks;
+
+    // Constructors
+    public RestaurantImportResponse() {}
+
+    public RestaurantImportResponse(long lines, List<RestaurantImportChunk> chunks, long elapsedMillis) {
+        this.lines = lines;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+        for (RestaurantImportChunk chunk : chunks) {
+            imported += chunk.getImported();
+            menuItems += chunk.getMenuItems();
+            duplicates += chunk.getDuplicates();
+            failed += chunk.getFailed();
+        }
+    }
+
+    // Getters and Setters
+    public long getLines() {
+        return lines;
+    }
+
+    public void setLines(long lines) {
+        this.lines = lines;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getMenuItems() {
+        return menuItems;
+    }
+
+    public void setMenuItems(int menuItems) {
+        this.menuItems = menuItems;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<RestaurantImportChunk> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<RestaurantImportChunk> chunks) {
+        this.chunks = chunks;
+    }
+}
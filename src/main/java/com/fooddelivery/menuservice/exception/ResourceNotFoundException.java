@@ -1,11 +1,15 @@
 package com.fooddelivery.menuservice.exception;
 
+/**
+ * Thrown for unknown resources. Not-found is an expected outcome (unknown or stale
+ * restaurant IDs are common), so no stack trace is captured.
+ */
 public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public ResourceNotFoundException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.fooddelivery.menuservice.repository;
 
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
 import com.fooddelivery.menuservice.entity.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,4 +24,22 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, UUID> {
                                                            @Param("isVeg") Boolean isVeg);
 
     long countByRestaurantRestaurantId(UUID restaurantId);
+
+    // Read path: menu items as DTOs, without managed entities or a join to restaurant
+    @Query("SELECT new com.fooddelivery.menuservice.dto.MenuItemDTO(m.menuId, m.name, m.price, m.availability, m.veg) "
+            + "FROM MenuItem m WHERE m.restaurant.restaurantId = :restaurantId")
+    List<MenuItemDTO> findMenuItemDTOsByRestaurantId(@Param("restaurantId") UUID restaurantId);
+
+    // [restaurantId, menuId, name, price, availability, veg] for the given restaurants
+    @Query("SELECT m.restaurant.restaurantId, m.menuId, m.name, m.price, m.availability, m.veg "
+            + "FROM MenuItem m WHERE m.restaurant.restaurantId IN :restaurantIds")
+    List<Object[]> findMenuItemRowsByRestaurantIds(@Param("restaurantIds") Collection<UUID> restaurantIds);
+
+    // [menuId, restaurantId] pairs for the given menu items
+    @Query("SELECT m.menuId, m.restaurant.restaurantId FROM MenuItem m WHERE m.menuId IN :menuIds")
+    List<Object[]> findRestaurantIdsByMenuIds(@Param("menuIds") Collection<UUID> menuIds);
+
+    // [menuId, price, availability] for the given menu items
+    @Query("SELECT m.menuId, m.price, m.availability FROM MenuItem m WHERE m.menuId IN :menuIds")
+    List<Object[]> findPriceAndAvailabilityByMenuIds(@Param("menuIds") Collection<UUID> menuIds);
 }
\ No newline at end of file
@@ -1,13 +1,20 @@
 package com.fooddelivery.menuservice.repository;
 
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
 import com.fooddelivery.menuservice.entity.Restaurant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, UUID> {
@@ -15,7 +22,24 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, UUID> {
     @Query("SELECT r FROM Restaurant r LEFT JOIN FETCH r.menuItems WHERE r.restaurantId = :restaurantId")
     Optional<Restaurant> findByIdWithMenuItems(@Param("restaurantId") UUID restaurantId);
 
+    // Read path: restaurant columns as a DTO, without a managed entity
+    @Query("SELECT new com.fooddelivery.menuservice.dto.RestaurantDTO(r.restaurantId, r.name, r.address) "
+            + "FROM Restaurant r WHERE r.restaurantId = :restaurantId")
+    Optional<RestaurantDTO> findMenuHeaderById(@Param("restaurantId") UUID restaurantId);
+
+    @Query("SELECT new com.fooddelivery.menuservice.dto.RestaurantDTO(r.restaurantId, r.name, r.address) "
+            + "FROM Restaurant r WHERE r.restaurantId IN :restaurantIds")
+    List<RestaurantDTO> findMenuHeadersByIds(@Param("restaurantIds") Collection<UUID> restaurantIds);
+
+    // Streams every restaurant ID; must be consumed inside a transaction
+    @Query("SELECT r.restaurantId FROM Restaurant r")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UUID> streamAllRestaurantIds();
+
     Optional<Restaurant> findByName(String name);
 
     boolean existsByName(String name);
+
+    @Query("SELECT r.name FROM Restaurant r WHERE r.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
 }
\ No newline at end of file
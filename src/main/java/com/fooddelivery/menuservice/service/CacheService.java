@@ -1,105 +1,975 @@
 package com.fooddelivery.menuservice.service;
 
+import com.fooddelivery.menuservice.cache.CacheInvalidationBus;
+import com.fooddelivery.menuservice.cache.CompactMenu;
+import com.fooddelivery.menuservice.cache.HotKeyTracker;
+import com.fooddelivery.menuservice.cache.L2HedgePolicy;
+import com.fooddelivery.menuservice.cache.L2ShardRouter;
+import com.fooddelivery.menuservice.cache.MenuCacheMetrics;
+import com.fooddelivery.menuservice.cache.MenuWeigher;
+import com.fooddelivery.menuservice.cache.OffHeapMenuStore;
+import com.fooddelivery.menuservice.cache.RedisCircuitBreaker;
+import com.fooddelivery.menuservice.cache.codec.NotFoundMarker;
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.MenuItemPatch;
 import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.fooddelivery.menuservice.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 @Service
-public class CacheService {
+public class CacheService implements CacheInvalidationBus.Listener {
 
     private static final Logger logger = LoggerFactory.getLogger(CacheService.class);
     private static final String CACHE_KEY_PREFIX = "restaurant:menu:";
+    private static final int MAX_PATCH_ATTEMPTS = 3;
+    // L1 weight distribution buckets: upper bounds in bytes, the last bucket is unbounded
+    private static final long[] WEIGHT_BUCKET_LIMITS = {1L << 10, 4L << 10, 16L << 10, 64L << 10, 256L << 10, 1L << 20};
+    private static final String[] WEIGHT_BUCKET_LABELS = {"<1KB", "1-4KB", "4-16KB", "16-64KB", "64-256KB", "256KB-1MB", ">=1MB"};
 
+    // L2 Redis node(s) serving each key
     @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    private L2ShardRouter l2Shards;
 
     @Autowired
     private com.github.benmanes.caffeine.cache.Cache<String, Object> caffeineCache;
 
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private MenuCacheMetrics metrics;
+
+    @Autowired
+    private OffHeapMenuStore offHeapStore;
+
+    // Gates L2 reads and write-backs. Deletes and patches always go to Redis, so an
+    // entry that must be dropped is not left behind by an open circuit.
+    @Autowired
+    private RedisCircuitBreaker redisCircuit;
+
+    @Autowired
+    private L2HedgePolicy hedgePolicy;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
     @org.springframework.beans.factory.annotation.Value("${cache.redis.ttl:3600}")
     private long redisTtl;
 
+    @org.springframework.beans.factory.annotation.Value("${cache.l1.compact-menus:true}")
+    private boolean compactMenus;
+
+    @org.springframework.beans.factory.annotation.Value("${cache.hot-keys.l2-replicas:4}")
+    private int l2Replicas;
+
+    @org.springframework.beans.factory.annotation.Value("${cache.hot-keys.l2-replica-ttl:60s}")
+    private Duration l2ReplicaTtl;
+
+    @org.springframework.beans.factory.annotation.Value("${cache.negative.enabled:true}")
+    private boolean negativeCacheEnabled;
+
+    @org.springframework.beans.factory.annotation.Value("${cache.negative.l1-ttl:30s}")
+    private Duration negativeL1Ttl;
+
+    @org.springframework.beans.factory.annotation.Value("${cache.negative.l2-ttl:60s}")
+    private Duration negativeL2Ttl;
+
+    @org.springframework.beans.factory.annotation.Value("${cache.negative.maximum-size:100000}")
+    private long negativeMaximumSize;
+
+    // L1 negative cache: restaurant IDs recently found not to exist
+    private Cache<UUID, Boolean> negativeCache;
+
+    @PostConstruct
+    public void init() {
+        negativeCache = Caffeine.newBuilder()
+                .expireAfterWrite(negativeL1Ttl)
+                .maximumSize(negativeMaximumSize)
+                .build();
+        invalidationBus.addListener(this);
+        hotKeyTracker.addListener(this::pinHotKeys);
+    }
+
+    /**
+     * Re-put the L1 menus of restaurants that just became hot or cooled down, so the weigher
+     * weighs them again: 0 while pinned, their size once unpinned, which puts cooled menus back
+     * under the byte budget. Re-putting restarts the entry's expireAfterWrite age.
+     */
+    private void pinHotKeys(Set<UUID> heated, Set<UUID> cooled) {
+        for (Set<UUID> restaurantIds : List.of(heated, cooled)) {
+            for (UUID restaurantId : restaurantIds) {
+                caffeineCache.asMap().computeIfPresent(CACHE_KEY_PREFIX + restaurantId.toString(), (key, cached) -> cached);
+            }
+        }
+    }
+
     // L1 Cache Operations (Caffeine)
     public RestaurantDTO getFromL1Cache(UUID restaurantId) {
+        long start = System.nanoTime();
         String key = CACHE_KEY_PREFIX + restaurantId.toString();
-        RestaurantDTO restaurant = (RestaurantDTO) caffeineCache.getIfPresent(key);
+        RestaurantDTO restaurant = restaurantOf(caffeineCache.getIfPresent(key));
+        metrics.recordL1(restaurant != null, start);
 
         if (restaurant != null) {
-            logger.info("Cache HIT in L1 (Caffeine) for restaurant: {}", restaurantId);
+            logger.debug("Cache HIT in L1 (Caffeine) for restaurant: {}", restaurantId);
             return restaurant;
         }
 
         logger.debug("Cache MISS in L1 (Caffeine) for restaurant: {}", restaurantId);
-        return null;
+        return takeFromOffHeap(restaurantId, key);
+    }
+
+    /**
+     * After an L1 write the off-heap copy, if any, is stale. If the write was itself evicted
+     * from Caffeine meanwhile (bulk writes can evict their own entries) the off-heap copy is
+     * the new value and is kept.
+     */
+    private void dropOffHeapCopy(UUID restaurantId, String key) {
+        if (offHeapStore.isEnabled() && caffeineCache.policy().getIfPresentQuietly(key) != null) {
+            offHeapStore.remove(restaurantId);
+        }
+    }
+
+    // Off-heap tier lookup; a hit is promoted back into Caffeine
+    private RestaurantDTO takeFromOffHeap(UUID restaurantId, String key) {
+        if (!offHeapStore.isEnabled()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        RestaurantDTO restaurant = offHeapStore.take(restaurantId);
+        metrics.recordOffHeap(restaurant != null, start);
+        if (restaurant != null) {
+            logger.debug("Cache HIT in off-heap tier for restaurant: {}", restaurantId);
+            Object cached = l1Value(restaurant);
+            caffeineCache.put(key, cached);
+            restaurant = restaurantOf(cached);
+        }
+        return restaurant;
+    }
+
+    // L1 lookup without hit/miss accounting, for re-checks inside a load
+    public RestaurantDTO peekL1Cache(UUID restaurantId) {
+        return restaurantOf(caffeineCache.policy().getIfPresentQuietly(CACHE_KEY_PREFIX + restaurantId.toString()));
+    }
+
+    // Cached L1 menus ranked by Caffeine's frequency sketch, hottest first
+    public List<RestaurantDTO> hottestL1Entries(int limit) {
+        Collection<Object> values = caffeineCache.policy().eviction()
+                .map(eviction -> eviction.hottest(limit).values())
+                .orElseGet(() -> caffeineCache.asMap().values());
+        List<RestaurantDTO> restaurants = new ArrayList<>(Math.min(limit, values.size()));
+        for (Object value : values) {
+            RestaurantDTO restaurant = restaurantOf(value);
+            if (restaurant != null && restaurants.size() < limit) {
+                restaurants.add(restaurant);
+            }
+        }
+        return restaurants;
+    }
+
+    // Fill L1 from a snapshot, keeping any entry written since startup; returns the number added
+    public int restoreL1Entries(Collection<RestaurantDTO> restaurants) {
+        int restored = 0;
+        for (RestaurantDTO restaurant : restaurants) {
+            String key = CACHE_KEY_PREFIX + restaurant.getRestaurantId().toString();
+            if (caffeineCache.asMap().putIfAbsent(key, l1Value(restaurant)) == null) {
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * True when the L1 entry is older than the given soft TTL.
+     * Requires an expireAfterWrite policy on the Caffeine cache; otherwise entries never go stale.
+     */
+    public boolean isL1EntryOlderThan(UUID restaurantId, Duration softTtl) {
+        String key = CACHE_KEY_PREFIX + restaurantId.toString();
+        return caffeineCache.policy().expireAfterWrite()
+                .flatMap(expiration -> expiration.ageOf(key))
+                .map(age -> age.compareTo(softTtl) > 0)
+                .orElse(false);
+    }
+
+    // Negative cache: true if the restaurant was recently found not to exist (L1 only)
+    public boolean isKnownMissing(UUID restaurantId) {
+        return negativeCacheEnabled && negativeCache.getIfPresent(restaurantId) != null;
+    }
+
+    // Record restaurants that do not exist, in L1 and (with a short TTL) in L2
+    public void rememberMissing(Collection<UUID> restaurantIds) {
+        if (!negativeCacheEnabled || restaurantIds.isEmpty()) {
+            return;
+        }
+        for (UUID restaurantId : restaurantIds) {
+            negativeCache.put(restaurantId, Boolean.TRUE);
+        }
+        if (!redisCircuit.allowRequest()) {
+            return;
+        }
+        try {
+            Map<String, Object> entries = new LinkedHashMap<>();
+            for (UUID restaurantId : restaurantIds) {
+                entries.put(CACHE_KEY_PREFIX + restaurantId.toString(), NotFoundMarker.INSTANCE);
+            }
+            setPipelined(entries, negativeL2Ttl);
+            redisCircuit.recordSuccess();
+            logger.debug("Negative cache entries stored for {} restaurants", restaurantIds.size());
+        } catch (Exception e) {
+            redisCircuit.recordFailure();
+            metrics.recordRedisError(MenuCacheMetrics.REDIS_PIPELINED_SET);
+            logger.error("Error storing negative cache entries for {} restaurants: {}",
+                    restaurantIds.size(), e.getMessage());
+        }
     }
 
     // L2 Cache Operations (Redis)
+    // Throws ResourceNotFoundException when L2 holds a negative entry for the restaurant.
+    // Skipped (a miss) while the Redis circuit is open.
     public RestaurantDTO getFromL2Cache(UUID restaurantId) {
+        if (!redisCircuit.allowRequest()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        String key = CACHE_KEY_PREFIX + restaurantId.toString();
         try {
-            String key = CACHE_KEY_PREFIX + restaurantId.toString();
-            Object cachedValue = redisTemplate.opsForValue().get(key);
+            Object cachedValue = isReplicated(restaurantId)
+                    ? getReplicated(key)
+                    : getL2(key);
+            redisCircuit.recordSuccess();
+            hedgePolicy.recordLatency(System.nanoTime() - start);
+
+            if (cachedValue == NotFoundMarker.INSTANCE) {
+                metrics.recordL2Negative(start);
+                negativeCache.put(restaurantId, Boolean.TRUE);
+                throw new ResourceNotFoundException("Restaurant not found with ID: " + restaurantId);
+            }
+            metrics.recordL2(cachedValue != null, start);
 
             if (cachedValue != null) {
-                logger.info("Cache HIT in L2 (Redis) for restaurant: {}", restaurantId);
-                RestaurantDTO restaurant = (RestaurantDTO) cachedValue;
+                logger.debug("Cache HIT in L2 (Redis) for restaurant: {}", restaurantId);
 
-                // Update L1 cache when retrieving from L2
-                updateL1Cache(restaurantId, restaurant);
-                return restaurant;
+                // Update L1 cache when retrieving from L2, and answer with the instance it holds
+                return updateL1Cache(restaurantId, (RestaurantDTO) cachedValue);
             }
 
             logger.debug("Cache MISS in L2 (Redis) for restaurant: {}", restaurantId);
             return null;
+        } catch (ResourceNotFoundException e) {
+            throw e;
+        } catch (SerializationException e) {
+            // Redis answered: an entry that cannot be decoded is a miss, not a Redis failure
+            redisCircuit.recordSuccess();
+            metrics.recordL2(false, start);
+            deleteUndecodable(restaurantId, key, e);
+            return null;
         } catch (Exception e) {
+            redisCircuit.recordFailure();
+            metrics.recordRedisError(MenuCacheMetrics.REDIS_GET);
             logger.error("Error retrieving from L2 cache for restaurant: {}: {}", restaurantId, e.getMessage());
             return null;
         }
     }
 
-    // Update L1 Cache
-    public void updateL1Cache(UUID restaurantId, RestaurantDTO restaurant) {
+    /**
+     * Non-blocking L2 lookup with the same outcomes as getFromL2Cache: a hit (copied into L1),
+     * empty on a miss or a Redis error, or ResourceNotFoundException for a negative entry.
+     */
+    public Mono<RestaurantDTO> getFromL2CacheAsync(UUID restaurantId) {
+        String key = CACHE_KEY_PREFIX + restaurantId.toString();
+        return Mono.defer(() -> {
+            if (!redisCircuit.allowRequest()) {
+                return Mono.empty();
+            }
+            long start = System.nanoTime();
+            Mono<Object> read = isReplicated(restaurantId)
+                    ? getReplicatedAsync(key)
+                    : getL2Async(key);
+            return read
+                    .doOnSuccess(cachedValue -> {
+                        redisCircuit.recordSuccess();
+                        hedgePolicy.recordLatency(System.nanoTime() - start);
+                        if (cachedValue == NotFoundMarker.INSTANCE) {
+                            metrics.recordL2Negative(start);
+                        } else {
+                            metrics.recordL2(cachedValue != null, start);
+                        }
+                    })
+                    .doOnCancel(redisCircuit::recordAbandoned)
+                    .onErrorResume(SerializationException.class, e -> {
+                        redisCircuit.recordSuccess();
+                        metrics.recordL2(false, start);
+                        return deleteUndecodableAsync(restaurantId, key, e).then(Mono.empty());
+                    });
+        }).flatMap(cachedValue -> {
+            if (cachedValue == NotFoundMarker.INSTANCE) {
+                negativeCache.put(restaurantId, Boolean.TRUE);
+                return Mono.error(new ResourceNotFoundException("Restaurant not found with ID: " + restaurantId));
+            }
+            logger.debug("Cache HIT in L2 (Redis) for restaurant: {}", restaurantId);
+            return Mono.just(updateL1Cache(restaurantId, (RestaurantDTO) cachedValue));
+        }).onErrorResume(e -> !(e instanceof ResourceNotFoundException), e -> {
+            redisCircuit.recordFailure();
+            metrics.recordRedisError(MenuCacheMetrics.REDIS_GET);
+            logger.error("Error retrieving from L2 cache for restaurant: {}: {}", restaurantId, e.getMessage());
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * Delete every copy of an L2 entry that cannot be decoded (corrupt, or written in a format
+     * this node does not read), so the database load that follows the miss rewrites it.
+     */
+    private void deleteUndecodable(UUID restaurantId, String key, SerializationException e) {
+        logger.warn("Undecodable L2 entry for restaurant: {}, deleting it: {}", restaurantId, e.getMessage());
+        try {
+            deleteL2(allL2Keys(key), false);
+        } catch (Exception deleteError) {
+            metrics.recordRedisError(MenuCacheMetrics.REDIS_DELETE);
+            logger.error("Error deleting undecodable L2 entry for restaurant: {}: {}", restaurantId, deleteError.getMessage());
+        }
+    }
+
+    private Mono<Void> deleteUndecodableAsync(UUID restaurantId, String key, SerializationException e) {
+        logger.warn("Undecodable L2 entry for restaurant: {}, deleting it: {}", restaurantId, e.getMessage());
+        return Flux.fromIterable(l2Shards.groupForDelete(allL2Keys(key), false).entrySet())
+                .flatMap(group -> group.getKey().getReactiveTemplate().delete(group.getValue().toArray(new String[0]))
+                        .doOnSuccess(deleted -> l2Shards.recordSuccess(group.getKey()))
+                        .doOnError(deleteError -> {
+                            l2Shards.recordFailedDelete(group.getKey(), group.getValue(), deleteError);
+                            metrics.recordRedisError(MenuCacheMetrics.REDIS_DELETE);
+                            logger.error("Error deleting undecodable L2 entry for restaurant: {}: {}",
+                                    restaurantId, deleteError.getMessage());
+                        })
+                        .onErrorResume(deleteError -> Mono.empty()))
+                .then();
+    }
+
+    // Hot restaurants are read from one of cache.hot-keys.l2-replicas copies of their L2 entry
+    private boolean isReplicated(UUID restaurantId) {
+        return l2Replicas > 0 && hotKeyTracker.isHot(restaurantId);
+    }
+
+    private static String replicaKey(String key, int replica) {
+        return key + ":r" + replica;
+    }
+
+    // The main key and every replica key, for deletes
+    private List<String> allL2Keys(String key) {
+        List<String> keys = new ArrayList<>(l2Replicas + 1);
+        keys.add(key);
+        for (int replica = 0; replica < l2Replicas; replica++) {
+            keys.add(replicaKey(key, replica));
+        }
+        return keys;
+    }
+
+    /**
+     * Read a random copy, so a hot menu's reads spread over several keys (and, with keys
+     * spread over Redis nodes, several nodes). A missing copy falls back to the main key and
+     * is filled from it for cache.hot-keys.l2-replica-ttl. Copies are deleted along with the
+     * main key, and the short TTL bounds how long a copy filled during a delete can linger.
+     */
+    private Object getReplicated(String key) {
+        String replicaKey = replicaKey(key, ThreadLocalRandom.current().nextInt(l2Replicas));
+        Object cachedValue = getL2(replicaKey);
+        metrics.recordL2Replica(cachedValue != null);
+        if (cachedValue != null) {
+            return cachedValue;
+        }
+        cachedValue = getL2(key);
+        if (cachedValue instanceof RestaurantDTO) {
+            setL2(replicaKey, cachedValue, l2ReplicaTtl);
+        }
+        return cachedValue;
+    }
+
+    private Mono<Object> getReplicatedAsync(String key) {
+        String replicaKey = replicaKey(key, ThreadLocalRandom.current().nextInt(l2Replicas));
+        return getL2Async(replicaKey)
+                .doOnSuccess(cachedValue -> metrics.recordL2Replica(cachedValue != null))
+                .switchIfEmpty(Mono.defer(() -> getL2Async(key)
+                        .flatMap(cachedValue -> cachedValue instanceof RestaurantDTO
+                                ? setL2Async(replicaKey, cachedValue, l2ReplicaTtl).thenReturn(cachedValue)
+                                : Mono.just(cachedValue))));
+    }
+
+    // A value that cannot be (de)serialized says nothing about the shard; only connection
+    // and timeout errors count against it
+    private void recordShardError(L2ShardRouter.Shard shard, Throwable e) {
+        if (!(e instanceof SerializationException)) {
+            l2Shards.recordFailure(shard, e);
+        }
+    }
+
+    /**
+     * Single-key L2 calls on the shard serving the key. Failures count against the shard (a
+     * shard failing repeatedly is taken out, see L2ShardRouter) and are rethrown for the
+     * caller's circuit breaker and error handling.
+     */
+    private Object getL2(String key) {
+        L2ShardRouter.Shard shard = l2Shards.shardFor(key);
+        try {
+            Object cachedValue = shard.getTemplate().opsForValue().get(key);
+            l2Shards.recordSuccess(shard);
+            return cachedValue;
+        } catch (RuntimeException e) {
+            recordShardError(shard, e);
+            throw e;
+        }
+    }
+
+    private void setL2(String key, Object value, Duration ttl) {
+        L2ShardRouter.Shard shard = l2Shards.shardFor(key);
+        try {
+            shard.getTemplate().opsForValue().set(key, l2Value(value), ttl);
+            l2Shards.recordSuccess(shard);
+        } catch (RuntimeException e) {
+            recordShardError(shard, e);
+            throw e;
+        }
+    }
+
+    private Mono<Object> getL2Async(String key) {
+        L2ShardRouter.Shard shard = l2Shards.shardFor(key);
+        return shard.getReactiveTemplate().opsForValue().get(key)
+                .doOnSuccess(cachedValue -> l2Shards.recordSuccess(shard))
+                .doOnError(e -> recordShardError(shard, e));
+    }
+
+    private Mono<Boolean> setL2Async(String key, Object value, Duration ttl) {
+        L2ShardRouter.Shard shard = l2Shards.shardFor(key);
+        return shard.getReactiveTemplate().opsForValue().set(key, l2Value(value), ttl)
+                .doOnSuccess(stored -> l2Shards.recordSuccess(shard))
+                .doOnError(e -> recordShardError(shard, e));
+    }
+
+    // SET with a TTL for every entry, one pipeline per shard; throws the first failure after trying every shard
+    private void setPipelined(Map<String, Object> entries, Duration ttl) {
+        RuntimeException failure = null;
+        for (Map.Entry<L2ShardRouter.Shard, List<String>> group : l2Shards.groupByShard(entries.keySet()).entrySet()) {
+            L2ShardRouter.Shard shard = group.getKey();
+            try {
+                shard.getTemplate().executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                        for (String key : group.getValue()) {
+                            redisOperations.opsForValue().set(key, l2Value(entries.get(key)), ttl);
+                        }
+                        return null;
+                    }
+                });
+                l2Shards.recordSuccess(shard);
+            } catch (RuntimeException e) {
+                recordShardError(shard, e);
+                failure = failure != null ? failure : e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Delete keys from every shard that serves or may later serve them (L2ShardRouter.groupForDelete),
+     * optionally keeping the serving shard's copy. A failed delete is retried by the shard health
+     * check when sharded; the first failure is rethrown after trying every shard.
+     */
+    private void deleteL2(Collection<String> keys, boolean keepOwnerCopy) {
+        RuntimeException failure = null;
+        for (Map.Entry<L2ShardRouter.Shard, List<String>> group : l2Shards.groupForDelete(keys, keepOwnerCopy).entrySet()) {
+            L2ShardRouter.Shard shard = group.getKey();
+            try {
+                shard.getTemplate().delete(group.getValue());
+                l2Shards.recordSuccess(shard);
+            } catch (RuntimeException e) {
+                l2Shards.recordFailedDelete(shard, group.getValue(), e);
+                failure = failure != null ? failure : e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Bulk L1 lookup; returns only the restaurants present in L1
+    public Map<UUID, RestaurantDTO> getAllFromL1Cache(Collection<UUID> restaurantIds) {
+        List<String> keys = new ArrayList<>(restaurantIds.size());
+        for (UUID restaurantId : restaurantIds) {
+            keys.add(CACHE_KEY_PREFIX + restaurantId.toString());
+        }
+        Map<String, Object> present = caffeineCache.getAllPresent(keys);
+
+        Map<UUID, RestaurantDTO> restaurants = new HashMap<>();
+        for (Object value : present.values()) {
+            RestaurantDTO restaurant = restaurantOf(value);
+            restaurants.put(restaurant.getRestaurantId(), restaurant);
+        }
+        metrics.recordL1(restaurants.size(), restaurantIds.size() - restaurants.size());
+
+        if (offHeapStore.isEnabled() && restaurants.size() < restaurantIds.size()) {
+            long start = System.nanoTime();
+            int hits = 0;
+            int misses = 0;
+            for (UUID restaurantId : restaurantIds) {
+                if (restaurants.containsKey(restaurantId)) {
+                    continue;
+                }
+                RestaurantDTO restaurant = offHeapStore.take(restaurantId);
+                if (restaurant != null) {
+                    Object cached = l1Value(restaurant);
+                    caffeineCache.put(CACHE_KEY_PREFIX + restaurantId.toString(), cached);
+                    restaurant = restaurantOf(cached);
+                    restaurants.put(restaurantId, restaurant);
+                    hits++;
+                } else {
+                    misses++;
+                }
+            }
+            metrics.recordOffHeap(hits, misses, start);
+        }
+        logger.debug("Bulk L1 lookup: {} of {} restaurants present", restaurants.size(), restaurantIds.size());
+        return restaurants;
+    }
+
+    /**
+     * Bulk L2 lookup with one MGET per shard; hits are copied into L1, negative entries into the
+     * L1 negative cache. Keys on a shard that fails are misses; the circuit only counts a
+     * failure when no shard answered.
+     */
+    public Map<UUID, RestaurantDTO> getAllFromL2Cache(Collection<UUID> restaurantIds) {
+        Map<UUID, RestaurantDTO> restaurants = new HashMap<>();
+        if (restaurantIds.isEmpty() || !redisCircuit.allowRequest()) {
+            return restaurants;
+        }
+        try {
+            long start = System.nanoTime();
+            List<String> keys = new ArrayList<>(restaurantIds.size());
+            for (UUID restaurantId : restaurantIds) {
+                keys.add(CACHE_KEY_PREFIX + restaurantId.toString());
+            }
+            Map<String, Object> values = new HashMap<>();
+            boolean answered = false;
+            Exception failure = null;
+            for (Map.Entry<L2ShardRouter.Shard, List<String>> group : l2Shards.groupByShard(keys).entrySet()) {
+                L2ShardRouter.Shard shard = group.getKey();
+                try {
+                    List<Object> shardValues = shard.getTemplate().opsForValue().multiGet(group.getValue());
+                    l2Shards.recordSuccess(shard);
+                    answered = true;
+                    for (int i = 0; shardValues != null && i < shardValues.size(); i++) {
+                        values.put(group.getValue().get(i), shardValues.get(i));
+                    }
+                } catch (SerializationException e) {
+                    // The shard answered, but an entry it holds cannot be decoded: its keys miss
+                    // and are rewritten by the database loads that follow
+                    l2Shards.recordSuccess(shard);
+                    answered = true;
+                    logger.warn("Undecodable entry among {} restaurants on L2 shard {}: {}",
+                            group.getValue().size(), shard.getName(), e.getMessage());
+                } catch (RuntimeException e) {
+                    l2Shards.recordFailure(shard, e);
+                    metrics.recordRedisError(MenuCacheMetrics.REDIS_MGET);
+                    logger.error("Error retrieving {} restaurants from L2 shard {}: {}",
+                            group.getValue().size(), shard.getName(), e.getMessage());
+                    failure = e;
+                }
+            }
+            if (!answered && failure != null) {
+                redisCircuit.recordFailure();
+                return restaurants;
+            }
+            redisCircuit.recordSuccess();
+
+            Map<String, Object> l1Entries = new HashMap<>();
+            int negatives = 0;
+            Iterator<UUID> ids = restaurantIds.iterator();
+            for (int i = 0; i < keys.size(); i++) {
+                UUID restaurantId = ids.next();
+                Object value = values.get(keys.get(i));
+                if (value instanceof RestaurantDTO restaurant) {
+                    restaurants.put(restaurant.getRestaurantId(), restaurant);
+                    l1Entries.put(keys.get(i), l1Value(restaurant));
+                } else if (value == NotFoundMarker.INSTANCE) {
+                    negativeCache.put(restaurantId, Boolean.TRUE);
+                    negatives++;
+                }
+            }
+            metrics.recordL2(restaurants.size(), negatives, restaurantIds.size() - restaurants.size() - negatives, start);
+            caffeineCache.putAll(l1Entries);
+            restaurants.keySet().forEach(restaurantId ->
+                    dropOffHeapCopy(restaurantId, CACHE_KEY_PREFIX + restaurantId.toString()));
+            logger.debug("Bulk L2 lookup: {} of {} restaurants present", restaurants.size(), restaurantIds.size());
+        } catch (Exception e) {
+            redisCircuit.recordFailure();
+            metrics.recordRedisError(MenuCacheMetrics.REDIS_MGET);
+            logger.error("Error retrieving {} restaurants from L2 cache: {}", restaurantIds.size(), e.getMessage());
+        }
+        return restaurants;
+    }
+
+    // L1 holds menus in their compact columnar form, unless disabled or not representable
+    private Object l1Value(RestaurantDTO restaurant) {
+        if (!compactMenus) {
+            return restaurant;
+        }
+        CompactMenu compact = CompactMenu.from(restaurant);
+        return compact != null ? compact : restaurant;
+    }
+
+    // L2 holds plain DTOs: a compact menu's view read from L1 is copied out before it is written
+    private static Object l2Value(Object value) {
+        return value instanceof RestaurantDTO restaurant ? CompactMenu.detach(restaurant) : value;
+    }
+
+    // The menu an L1 value holds; a compact menu is handed out as its (single) DTO view
+    private static RestaurantDTO restaurantOf(Object cached) {
+        if (cached instanceof CompactMenu compact) {
+            return compact.toRestaurantDTO();
+        }
+        return cached instanceof RestaurantDTO restaurant ? restaurant : null;
+    }
+
+    // Update L1 Cache; returns the instance L1 now holds (the view of a compact menu), which
+    // is what MenuResponseCache and MenuFilterIndex key on, or the given menu if the update failed
+    public RestaurantDTO updateL1Cache(UUID restaurantId, RestaurantDTO restaurant) {
         try {
             String key = CACHE_KEY_PREFIX + restaurantId.toString();
-            caffeineCache.put(key, restaurant);
+            Object cached = l1Value(restaurant);
+            caffeineCache.put(key, cached);
+            dropOffHeapCopy(restaurantId, key);
+            negativeCache.invalidate(restaurantId);
             logger.debug("L1 Cache updated for restaurant: {}", restaurantId);
+            return restaurantOf(cached);
         } catch (Exception e) {
             logger.error("Error updating L1 cache for restaurant: {}: {}", restaurantId, e.getMessage());
+            return restaurant;
         }
     }
 
-    // Update L2 Cache
+    // Update L2 Cache (dropped while the Redis circuit is open)
     public void updateL2Cache(UUID restaurantId, RestaurantDTO restaurant) {
+        if (!redisCircuit.allowRequest()) {
+            return;
+        }
         try {
             String key = CACHE_KEY_PREFIX + restaurantId.toString();
-            redisTemplate.opsForValue().set(key, restaurant, redisTtl, TimeUnit.SECONDS);
+            setL2(key, restaurant, Duration.ofSeconds(redisTtl));
+            redisCircuit.recordSuccess();
             logger.debug("L2 Cache updated for restaurant: {} with TTL: {} seconds", restaurantId, redisTtl);
         } catch (Exception e) {
+            redisCircuit.recordFailure();
+            metrics.recordRedisError(MenuCacheMetrics.REDIS_SET);
             logger.error("Error updating L2 cache for restaurant: {}: {}", restaurantId, e.getMessage());
         }
     }
 
-    // Update both caches
-    public void updateBothCaches(UUID restaurantId, RestaurantDTO restaurant) {
+    // Update both caches; returns the instance L1 now holds, as updateL1Cache
+    public RestaurantDTO updateBothCaches(UUID restaurantId, RestaurantDTO restaurant) {
         logger.debug("Updating both L1 and L2 caches for restaurant: {}", restaurantId);
-        updateL1Cache(restaurantId, restaurant);
+        RestaurantDTO cached = updateL1Cache(restaurantId, restaurant);
         updateL2Cache(restaurantId, restaurant);
+        return cached;
     }
 
-    // Clear both caches
+    // Bulk update of both caches; L2 writes are pipelined
+    public void updateBothCaches(Map<UUID, RestaurantDTO> restaurants) {
+        if (restaurants.isEmpty()) {
+            return;
+        }
+        Map<String, Object> entries = new HashMap<>();
+        Map<String, Object> l1Entries = new HashMap<>();
+        restaurants.forEach((restaurantId, restaurant) -> {
+            String key = CACHE_KEY_PREFIX + restaurantId.toString();
+            entries.put(key, restaurant);
+            l1Entries.put(key, l1Value(restaurant));
+        });
+        caffeineCache.putAll(l1Entries);
+        restaurants.keySet().forEach(restaurantId ->
+                dropOffHeapCopy(restaurantId, CACHE_KEY_PREFIX + restaurantId.toString()));
+        negativeCache.invalidateAll(restaurants.keySet());
+        if (!redisCircuit.allowRequest()) {
+            return;
+        }
+
+        try {
+            setPipelined(entries, Duration.ofSeconds(redisTtl));
+            redisCircuit.recordSuccess();
+            logger.debug("Both caches updated for {} restaurants", restaurants.size());
+        } catch (Exception e) {
+            redisCircuit.recordFailure();
+            metrics.recordRedisError(MenuCacheMetrics.REDIS_PIPELINED_SET);
+            logger.error("Error updating L2 cache for {} restaurants: {}", restaurants.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Apply committed item patches to the cached menu instead of dropping it.
+     * L1 is patched copy-on-write (readers keep a consistent old DTO); L2 is patched under
+     * WATCH/MULTI on the shard serving the key and falls back to deleting the key if it keeps
+     * changing underneath; copies on other shards are deleted. Other nodes drop their L1 copy and reload the patched menu from L2.
+     */
+    public void patchCachedMenu(UUID restaurantId, Map<UUID, MenuItemPatch> patches) {
+        String key = CACHE_KEY_PREFIX + restaurantId.toString();
+        caffeineCache.asMap().computeIfPresent(key,
+                (cacheKey, cached) -> l1Value(applyPatches(restaurantOf(cached), patches)));
+        offHeapStore.remove(restaurantId);
+
+        try {
+            boolean patched = patchL2(key, patches);
+            if (!patched) {
+                logger.debug("L2 entry for restaurant {} kept changing, deleting it instead of patching", restaurantId);
+            }
+            // Copies on other shards (the patched one is the serving shard's) are dropped
+            deleteL2(List.of(key), patched);
+            if (l2Replicas > 0) {
+                // Copies of a hot menu are refilled from the patched main key
+                deleteL2(allL2Keys(key).subList(1, l2Replicas + 1), false);
+            }
+        } catch (Exception e) {
+            metrics.recordRedisError(MenuCacheMetrics.REDIS_SET);
+            logger.error("Error patching L2 cache for restaurant: {}: {}", restaurantId, e.getMessage());
+            try {
+                deleteL2(allL2Keys(key), false);
+            } catch (Exception deleteError) {
+                metrics.recordRedisError(MenuCacheMetrics.REDIS_DELETE);
+            }
+        }
+        invalidationBus.publish(restaurantId);
+        logger.debug("Patched {} items in cached menu for restaurant: {}", patches.size(), restaurantId);
+    }
+
+    // WATCH/MULTI patch on the shard serving the key; false if the key kept changing underneath
+    private boolean patchL2(String key, Map<UUID, MenuItemPatch> patches) {
+        L2ShardRouter.Shard shard = l2Shards.shardFor(key);
+        boolean patched = false;
+        try {
+            for (int attempt = 0; attempt < MAX_PATCH_ATTEMPTS && !patched; attempt++) {
+                patched = Boolean.TRUE.equals(shard.getTemplate().execute(new SessionCallback<Boolean>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Boolean execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                        redisOperations.watch(key);
+                        Object cached = redisOperations.opsForValue().get(key);
+                        if (!(cached instanceof RestaurantDTO restaurant)) {
+                            // Nothing cached (or a negative entry): nothing to patch
+                            redisOperations.unwatch();
+                            return true;
+                        }
+                        Long ttl = redisOperations.getExpire(key, TimeUnit.SECONDS);
+                        redisOperations.multi();
+                        redisOperations.opsForValue().set(key, applyPatches(restaurant, patches),
+                                ttl != null && ttl > 0 ? ttl : redisTtl, TimeUnit.SECONDS);
+                        List<Object> results = redisOperations.exec();
+                        return results != null && !results.isEmpty();
+                    }
+                }));
+            }
+            l2Shards.recordSuccess(shard);
+            return patched;
+        } catch (RuntimeException e) {
+            recordShardError(shard, e);
+            throw e;
+        }
+    }
+
+    private static RestaurantDTO applyPatches(RestaurantDTO restaurant, Map<UUID, MenuItemPatch> patches) {
+        List<MenuItemDTO> menuItems = new ArrayList<>(restaurant.getMenuItems().size());
+        for (MenuItemDTO item : restaurant.getMenuItems()) {
+            MenuItemPatch patch = patches.get(item.getMenuId());
+            menuItems.add(patch == null ? item : patch.applyTo(item));
+        }
+        return new RestaurantDTO(restaurant.getRestaurantId(), restaurant.getName(), restaurant.getAddress(), menuItems);
+    }
+
+    // Clear both caches, then L1 on every other node via the invalidation bus (after the L2
+    // delete, so other nodes cannot reload the old L2 value into L1)
     public void clearBothCaches(UUID restaurantId) {
+        String key = CACHE_KEY_PREFIX + restaurantId.toString();
+        caffeineCache.invalidate(key);
+        offHeapStore.remove(restaurantId);
+        negativeCache.invalidate(restaurantId);
         try {
-            String key = CACHE_KEY_PREFIX + restaurantId.toString();
-            caffeineCache.invalidate(key);
-            redisTemplate.delete(key);
+            deleteL2(allL2Keys(key), false);
             logger.info("Both caches cleared for restaurant: {}", restaurantId);
         } catch (Exception e) {
+            metrics.recordRedisError(MenuCacheMetrics.REDIS_DELETE);
             logger.error("Error clearing caches for restaurant: {}: {}", restaurantId, e.getMessage());
         }
+        invalidationBus.publish(restaurantId);
+    }
+
+    public Map<String, Object> getTierStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("l1Hits", metrics.getL1Hits());
+        stats.put("l1Misses", metrics.getL1Misses());
+        stats.put("offHeapHits", metrics.getOffHeapHits());
+        stats.put("offHeapMisses", metrics.getOffHeapMisses());
+        stats.put("l2Hits", metrics.getL2Hits());
+        stats.put("l2Misses", metrics.getL2Misses());
+        stats.put("l2ReplicaHits", metrics.getL2ReplicaHits());
+        stats.put("l2ReplicaMisses", metrics.getL2ReplicaMisses());
+        stats.put("l2Errors", metrics.getL2Errors());
+        stats.put("l1NegativeHits", metrics.getL1NegativeHits());
+        stats.put("l2NegativeHits", metrics.getL2NegativeHits());
+        stats.put("idFilterRejects", metrics.getIdFilterRejects());
+        stats.put("l1Size", caffeineCache.estimatedSize());
+        stats.put("l1WeightedBytes", caffeineCache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        stats.put("negativeSize", negativeCache.estimatedSize());
+        stats.put("offHeap", offHeapStore.getStats());
+        return stats;
+    }
+
+    /**
+     * Distribution of L1 entry weights (estimated retained bytes) for tuning cache.l1.max-weight:
+     * totals, percentiles, entries and bytes per size bucket, and the heaviest entries.
+     * Without a weighted L1 (maximumSize in the spec) the weights are estimated on the fly.
+     */
+    public Map<String, Object> getL1WeightDistribution(int top) {
+        Policy.Eviction<String, Object> eviction = caffeineCache.policy().eviction()
+                .filter(Policy.Eviction::isWeighted)
+                .orElse(null);
+        MenuWeigher weigher = new MenuWeigher();
+
+        List<WeightedMenu> entries = new ArrayList<>();
+        int pinned = 0;
+        for (Map.Entry<String, Object> entry : caffeineCache.asMap().entrySet()) {
+            RestaurantDTO restaurant = restaurantOf(entry.getValue());
+            if (restaurant != null) {
+                int weight = eviction != null ? eviction.weightOf(entry.getKey()).orElse(0) : 0;
+                if (weight == 0) {
+                    // Unweighted L1, or a pinned hot menu: report its size all the same
+                    pinned += eviction != null ? 1 : 0;
+                    weight = weigher.weigh(entry.getKey(), entry.getValue());
+                }
+                entries.add(new WeightedMenu(restaurant, weight));
+            }
+        }
+        entries.sort(Comparator.comparingLong(entry -> entry.bytes));
+
+        long total = 0;
+        long[] bucketEntries = new long[WEIGHT_BUCKET_LABELS.length];
+        long[] bucketBytes = new long[WEIGHT_BUCKET_LABELS.length];
+        for (WeightedMenu entry : entries) {
+            int bucket = weightBucket(entry.bytes);
+            bucketEntries[bucket]++;
+            bucketBytes[bucket] += entry.bytes;
+            total += entry.bytes;
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("weighted", eviction != null);
+        stats.put("maxWeightBytes", eviction != null ? eviction.getMaximum() : null);
+        stats.put("weightedBytes", total);
+        stats.put("entries", entries.size());
+        stats.put("pinnedEntries", pinned);
+        if (!entries.isEmpty()) {
+            stats.put("meanBytes", total / entries.size());
+            stats.put("minBytes", entries.get(0).bytes);
+            stats.put("p50Bytes", percentile(entries, 0.50));
+            stats.put("p90Bytes", percentile(entries, 0.90));
+            stats.put("p99Bytes", percentile(entries, 0.99));
+            stats.put("maxBytes", entries.get(entries.size() - 1).bytes);
+        }
+
+        Map<String, Object> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < WEIGHT_BUCKET_LABELS.length; i++) {
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("entries", bucketEntries[i]);
+            bucket.put("bytes", bucketBytes[i]);
+            buckets.put(WEIGHT_BUCKET_LABELS[i], bucket);
+        }
+        stats.put("buckets", buckets);
+
+        List<Map<String, Object>> heaviest = new ArrayList<>();
+        for (int i = entries.size() - 1; i >= 0 && heaviest.size() < top; i--) {
+            RestaurantDTO restaurant = entries.get(i).restaurant;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("restaurantId", restaurant.getRestaurantId());
+            entry.put("name", restaurant.getName());
+            entry.put("menuItems", restaurant.getMenuItems() == null ? 0 : restaurant.getMenuItems().size());
+            entry.put("bytes", entries.get(i).bytes);
+            heaviest.add(entry);
+        }
+        stats.put("heaviest", heaviest);
+        return stats;
+    }
+
+    private static long percentile(List<WeightedMenu> sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, rank)).bytes;
+    }
+
+    private static int weightBucket(long bytes) {
+        for (int i = 0; i < WEIGHT_BUCKET_LIMITS.length; i++) {
+            if (bytes < WEIGHT_BUCKET_LIMITS[i]) {
+                return i;
+            }
+        }
+        return WEIGHT_BUCKET_LIMITS.length;
+    }
+
+    private static final class WeightedMenu {
+        private final RestaurantDTO restaurant;
+        private final long bytes;
+
+        private WeightedMenu(RestaurantDTO restaurant, long bytes) {
+            this.restaurant = restaurant;
+            this.bytes = bytes;
+        }
+    }
+
+    // Invalidation from another node
+    @Override
+    public void onInvalidate(Collection<UUID> restaurantIds) {
+        for (UUID restaurantId : restaurantIds) {
+            caffeineCache.invalidate(CACHE_KEY_PREFIX + restaurantId.toString());
+            offHeapStore.remove(restaurantId);
+        }
+        negativeCache.invalidateAll(restaurantIds);
+    }
+
+    @Override
+    public void onInvalidateAll(String reason) {
+        caffeineCache.invalidateAll();
+        offHeapStore.clear();
+        negativeCache.invalidateAll();
+        logger.info("L1 cache cleared: {}", reason);
+    }
+
+    @Override
+    public void onCreated(Collection<UUID> restaurantIds) {
+        negativeCache.invalidateAll(restaurantIds);
     }
 }
\ No newline at end of file
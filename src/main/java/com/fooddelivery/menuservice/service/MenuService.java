@@ -1,7 +1,16 @@
 package com.fooddelivery.menuservice.service;
 
+import com.fooddelivery.menuservice.cache.HotKeyTracker;
+import com.fooddelivery.menuservice.cache.L2HedgePolicy;
+import com.fooddelivery.menuservice.cache.MenuCacheMetrics;
+import com.fooddelivery.menuservice.cache.MenuLoadCoalescer;
+import com.fooddelivery.menuservice.cache.MenuPatchCoalescer;
+import com.fooddelivery.menuservice.cache.RestaurantIdFilter;
+import com.fooddelivery.menuservice.config.ReplicaDataSource;
 import com.fooddelivery.menuservice.dto.CreateRestaurantRequest;
 import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.MenuItemPatch;
+import com.fooddelivery.menuservice.dto.MenuItemPatchResponse;
 import com.fooddelivery.menuservice.dto.RestaurantDTO;
 import com.fooddelivery.menuservice.entity.MenuItem;
 import com.fooddelivery.menuservice.entity.Restaurant;
@@ -12,11 +21,39 @@ import com.fooddelivery.menuservice.repository.MenuItemRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +61,9 @@ import java.util.stream.Collectors;
 public class MenuService {
 
     private static final Logger logger = LoggerFactory.getLogger(MenuService.class);
+    private static final Logger requestLogger = LoggerFactory.getLogger("com.fooddelivery.menuservice.request");
+    private static final String PATCH_MENU_ITEM_SQL =
+            "UPDATE menu_items SET price = COALESCE(?, price), availability = COALESCE(?, availability) WHERE menu_id = ?";
 
     @Autowired
     private RestaurantRepository restaurantRepository;
@@ -34,6 +74,64 @@ public class MenuService {
     @Autowired
     private CacheService cacheService;
 
+    @Autowired
+    private MenuLoadCoalescer menuLoadCoalescer;
+
+    @Autowired
+    private MenuCacheMetrics metrics;
+
+    @Autowired
+    private RestaurantIdFilter restaurantIdFilter;
+
+    @Autowired
+    private MenuPatchCoalescer menuPatchCoalescer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskExecutor menuRefreshExecutor;
+
+    @Autowired
+    private L2HedgePolicy hedgePolicy;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Value("${cache.refresh.enabled:false}")
+    private boolean refreshEnabled;
+
+    @Value("${cache.refresh.soft-ttl:20m}")
+    private Duration refreshSoftTtl;
+
+    @Value("${menu.patch.jdbc-batch-size:200}")
+    private int patchBatchSize;
+
+    @Value("${menu.request-log.sample-rate:1.0}")
+    private double requestLogSampleRate;
+
+    @Value("${menu.request-log.slow-threshold:250ms}")
+    private Duration requestLogSlowThreshold;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    // Restaurants with a stale-while-revalidate reload queued or running
+    private final Set<UUID> pendingRefreshes = ConcurrentHashMap.newKeySet();
+    private final LongAdder staleServed = new LongAdder();
+    private final LongAdder refreshesRejected = new LongAdder();
+
+    @PostConstruct
+    public void initTransactionTemplate() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
     /**
      * API 1: Add restaurant with menu items
      */
@@ -69,6 +167,8 @@ public class MenuService {
 
         menuItems = menuItemRepository.saveAll(menuItems);
         restaurant.setMenuItems(menuItems);
+        restaurantIdFilter.addAfterCommit(restaurant.getRestaurantId());
+        readYourWrites.markWritten(List.of(restaurant.getRestaurantId()));
 
         logger.debug("Saved {} menu items for restaurant: {}", menuItems.size(), restaurant.getRestaurantId());
 
@@ -83,48 +183,416 @@ public class MenuService {
     /**
      * API 2: Get restaurant menu with multi-level caching
      * L1 (Caffeine) -> L2 (Redis) -> Database
+     * Runs without a surrounding transaction so that callers waiting on a
+     * coalesced load do not hold a DB connection; only the DB step opens one.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public RestaurantDTO getRestaurantMenu(UUID restaurantId) {
-        logger.info("Getting menu for restaurant: {}", restaurantId);
+        long start = System.nanoTime();
+        logger.debug("Getting menu for restaurant: {}", restaurantId);
+        hotKeyTracker.record(restaurantId);
 
         // Step 1: Check L1 Cache (Caffeine)
         RestaurantDTO restaurant = cacheService.getFromL1Cache(restaurantId);
         if (restaurant != null) {
-            logger.info("Menu retrieved from L1 cache for restaurant: {}", restaurantId);
+            logger.debug("Menu retrieved from L1 cache for restaurant: {}", restaurantId);
+            refreshIfStale(restaurantId);
+            logRequestSummary(restaurantId, "l1", restaurant, start);
+            return restaurant;
+        }
+
+        rejectIfKnownMissing(restaurantId);
+
+        // Step 2+: L2 and DB, with concurrent misses for the same restaurant coalesced.
+        // Only the leader runs the loader, so callers that waited on it report "coalesced".
+        String[] servedBy = {"coalesced"};
+        restaurant = menuLoadCoalescer.load(restaurantId, () -> loadThroughL2AndDatabase(restaurantId, servedBy));
+        logRequestSummary(restaurantId, servedBy[0], restaurant, start);
+        return restaurant;
+    }
+
+    /**
+     * API 3: Get menus for many restaurants at once
+     * L1 getAllPresent -> one L2 MGET -> two IN (...) projection queries, then bulk backfill.
+     * Returns the menus found, in request order; unknown IDs are simply absent.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<UUID, RestaurantDTO> getRestaurantMenus(Collection<UUID> restaurantIds) {
+        Set<UUID> requestedIds = new LinkedHashSet<>(restaurantIds);
+        logger.debug("Getting menus for {} restaurants", requestedIds.size());
+
+        // Step 1: L1
+        Map<UUID, RestaurantDTO> found = cacheService.getAllFromL1Cache(requestedIds);
+        found.keySet().forEach(this::refreshIfStale);
+
+        // Unknown IDs are dropped before L2
+        List<UUID> missing = missingIds(requestedIds, found);
+        int rejected = missing.size();
+        missing.removeIf(restaurantId -> !restaurantIdFilter.mightExist(restaurantId));
+        metrics.recordIdFilterRejects(rejected - missing.size());
+        int knownMissing = missing.size();
+        missing.removeIf(cacheService::isKnownMissing);
+        metrics.recordL1Negative(knownMissing - missing.size());
+
+        // Step 2: L2 (negative entries land in the L1 negative cache)
+        if (!missing.isEmpty()) {
+            found.putAll(cacheService.getAllFromL2Cache(missing));
+            missing.removeIf(restaurantId -> found.containsKey(restaurantId) || cacheService.isKnownMissing(restaurantId));
+        }
+
+        // Step 3: Database, then both caches
+        if (!missing.isEmpty()) {
+            List<UUID> databaseIds = missing;
+            long start = System.nanoTime();
+            Map<UUID, RestaurantDTO> loaded = queryMenus(databaseIds);
+            metrics.recordDatabase(loaded.size(), databaseIds.size() - loaded.size(), start);
+            cacheService.updateBothCaches(loaded);
+            if (loaded.size() < databaseIds.size()) {
+                cacheService.rememberMissing(missingIds(databaseIds, loaded));
+            }
+            found.putAll(loaded);
+            logger.debug("Loaded {} of {} missing restaurants from database", loaded.size(), databaseIds.size());
+        }
+
+        Map<UUID, RestaurantDTO> ordered = new LinkedHashMap<>();
+        for (UUID restaurantId : requestedIds) {
+            RestaurantDTO restaurant = found.get(restaurantId);
+            if (restaurant != null) {
+                ordered.put(restaurantId, restaurant);
+            }
+        }
+        logger.debug("Retrieved {} of {} requested menus", ordered.size(), requestedIds.size());
+        return ordered;
+    }
+
+    /**
+     * API 4: Patch price and/or availability of many menu items, across restaurants
+     * One JDBC batch of UPDATEs (null fields keep their value via COALESCE). After commit the
+     * cached menus are patched in place, with bursts per restaurant coalesced into one publish.
+     */
+    public MenuItemPatchResponse patchMenuItems(List<MenuItemPatch> patches) {
+        // Later patches for the same item win
+        Map<UUID, MenuItemPatch> patchesByMenuId = new LinkedHashMap<>();
+        for (MenuItemPatch patch : patches) {
+            if (patch.isEmpty()) {
+                throw new IllegalArgumentException("Menu item " + patch.getMenuId() + " has no price or availability to update");
+            }
+            patchesByMenuId.merge(patch.getMenuId(), patch, MenuItemPatch::mergedWith);
+        }
+        logger.debug("Patching {} menu items", patchesByMenuId.size());
+
+        Map<UUID, UUID> restaurantIdByMenuId = new HashMap<>();
+        for (Object[] row : menuItemRepository.findRestaurantIdsByMenuIds(patchesByMenuId.keySet())) {
+            restaurantIdByMenuId.put((UUID) row[0], (UUID) row[1]);
+        }
+
+        List<MenuItemPatch> found = new ArrayList<>(restaurantIdByMenuId.size());
+        List<UUID> notFound = new ArrayList<>();
+        for (MenuItemPatch patch : patchesByMenuId.values()) {
+            if (restaurantIdByMenuId.containsKey(patch.getMenuId())) {
+                found.add(patch);
+            } else {
+                notFound.add(patch.getMenuId());
+            }
+        }
+
+        jdbcTemplate.batchUpdate(PATCH_MENU_ITEM_SQL, found, patchBatchSize, (ps, patch) -> {
+            if (patch.getPrice() != null) {
+                ps.setBigDecimal(1, patch.getPrice());
+            } else {
+                ps.setNull(1, Types.DECIMAL);
+            }
+            if (patch.getAvailability() != null) {
+                ps.setBoolean(2, patch.getAvailability());
+            } else {
+                ps.setNull(2, Types.BOOLEAN);
+            }
+            ps.setBytes(3, uuidBytes(patch.getMenuId()));
+        });
+
+        Map<UUID, Map<UUID, MenuItemPatch>> patchesByRestaurant = new LinkedHashMap<>();
+        for (MenuItemPatch patch : found) {
+            patchesByRestaurant
+                    .computeIfAbsent(restaurantIdByMenuId.get(patch.getMenuId()), id -> new HashMap<>())
+                    .put(patch.getMenuId(), patch);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.markWritten(patchesByRestaurant.keySet());
+                patchesByRestaurant.forEach(menuPatchCoalescer::submit);
+            }
+        });
+
+        logger.info("Patched {} menu items across {} restaurants ({} not found)",
+                found.size(), patchesByRestaurant.size(), notFound.size());
+        return new MenuItemPatchResponse(found.size(), new ArrayList<>(patchesByRestaurant.keySet()), notFound);
+    }
+
+    // UUID columns are BINARY(16): most significant long first, as Hibernate binds them
+    static byte[] uuidBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    static UUID uuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static List<UUID> missingIds(Collection<UUID> requestedIds, Map<UUID, RestaurantDTO> found) {
+        List<UUID> missing = new ArrayList<>();
+        for (UUID restaurantId : requestedIds) {
+            if (!found.containsKey(restaurantId)) {
+                missing.add(restaurantId);
+            }
+        }
+        return missing;
+    }
+
+    // Unknown IDs: rejected by the known-ID filter, or recently found missing
+    void rejectIfKnownMissing(UUID restaurantId) {
+        if (!restaurantIdFilter.mightExist(restaurantId)) {
+            metrics.recordIdFilterRejects(1);
+            throw restaurantNotFound(restaurantId);
+        }
+        if (cacheService.isKnownMissing(restaurantId)) {
+            metrics.recordL1Negative(1);
+            throw restaurantNotFound(restaurantId);
+        }
+    }
+
+    /**
+     * Database step of the read path for callers that already missed L1 and L2.
+     * Blocking; loads are coalesced with those of getRestaurantMenu.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RestaurantDTO loadMenuFromDatabase(UUID restaurantId) {
+        return menuLoadCoalescer.load(restaurantId, () -> {
+            RestaurantDTO restaurant = cacheService.peekL1Cache(restaurantId);
+            return restaurant != null ? restaurant : loadFromDatabase(restaurantId);
+        });
+    }
+
+    /**
+     * Leader-side load: re-check L1 (a previous leader may have just published),
+     * then L2, then the database, publishing to both tiers on a DB load.
+     */
+    private RestaurantDTO loadThroughL2AndDatabase(UUID restaurantId, String[] servedBy) {
+        RestaurantDTO restaurant = cacheService.peekL1Cache(restaurantId);
+        if (restaurant != null) {
+            servedBy[0] = "l1";
             return restaurant;
         }
 
         // Step 2: Check L2 Cache (Redis)
-        restaurant = cacheService.getFromL2Cache(restaurantId);
+        restaurant = hedgePolicy.isEnabled()
+                ? getFromL2CacheHedged(restaurantId)
+                : cacheService.getFromL2Cache(restaurantId);
         if (restaurant != null) {
-            logger.info("Menu retrieved from L2 cache for restaurant: {}", restaurantId);
-            cacheService.updateL1Cache(restaurantId,restaurant);
+            logger.debug("Menu retrieved from L2 cache for restaurant: {}", restaurantId);
+            servedBy[0] = "l2";
             return restaurant;
         }
 
         // Step 3: Get from Database
-        logger.info("Cache miss - retrieving from database for restaurant: {}", restaurantId);
-        Restaurant restaurantEntity = restaurantRepository.findByIdWithMenuItems(restaurantId)
-                .orElseThrow(() -> {
-                    logger.error("Restaurant not found with ID: {}", restaurantId);
-                    return new ResourceNotFoundException("Restaurant not found with ID: " + restaurantId);
-                });
+        servedBy[0] = "db";
+        return loadFromDatabase(restaurantId);
+    }
+
+    /**
+     * L2 read bounded by the hedge delay: if Redis has not answered by then the read is
+     * cancelled and null is returned, so the caller goes on to the database.
+     */
+    private RestaurantDTO getFromL2CacheHedged(UUID restaurantId) {
+        CompletableFuture<RestaurantDTO> read = cacheService.getFromL2CacheAsync(restaurantId).toFuture();
+        try {
+            return read.get(hedgePolicy.currentDelay().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            read.cancel(true);
+            hedgePolicy.recordHedge();
+            logger.debug("L2 read for restaurant {} exceeded the hedge delay, loading from database", restaurantId);
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ResourceNotFoundException notFound) {
+                throw notFound;
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
 
-        restaurant = convertToDTO(restaurantEntity);
+    /**
+     * Load the menu from the database and publish it to both cache tiers
+     */
+    private RestaurantDTO loadFromDatabase(UUID restaurantId) {
+        logger.debug("Cache miss - retrieving from database for restaurant: {}", restaurantId);
+        long start = System.nanoTime();
+        RestaurantDTO restaurant = queryMenu(restaurantId);
+        if (restaurant == null) {
+            metrics.recordDatabase(0, 1, start);
+            logger.debug("Restaurant not found with ID: {}", restaurantId);
+            cacheService.rememberMissing(List.of(restaurantId));
+            throw restaurantNotFound(restaurantId);
+        }
+        metrics.recordDatabase(1, 0, start);
 
-        // Step 4: Update both caches
-        cacheService.updateBothCaches(restaurantId, restaurant);
+        // Step 4: Update both caches, answering with the instance L1 holds
+        restaurant = cacheService.updateBothCaches(restaurantId, restaurant);
 
-        logger.info("Menu retrieved from database and cached for restaurant: {} with {} menu items",
+        logger.debug("Menu retrieved from database and cached for restaurant: {} with {} menu items",
                 restaurantId, restaurant.getMenuItems().size());
         return restaurant;
     }
 
+    /**
+     * Menu straight from DTO projections (restaurant columns once, then its items), or null.
+     * No entities enter the persistence context, so nothing is snapshotted for dirty checking
+     * and there is no entity-to-DTO copy.
+     *
+     * With read replicas, a restaurant written recently is read from the primary, and one a
+     * replica does not have is looked up on the primary before it is reported missing.
+     */
+    private RestaurantDTO queryMenu(UUID restaurantId) {
+        if (readYourWrites.requiresPrimary(restaurantId)) {
+            return ReplicaDataSource.onPrimary(() -> selectMenu(restaurantId));
+        }
+        RestaurantDTO restaurant = selectMenu(restaurantId);
+        if (restaurant == null && readYourWrites.isEnabled()) {
+            restaurant = ReplicaDataSource.onPrimary(() -> selectMenu(restaurantId));
+        }
+        return restaurant;
+    }
+
+    private RestaurantDTO selectMenu(UUID restaurantId) {
+        return readOnlyTransaction.execute(status -> restaurantRepository.findMenuHeaderById(restaurantId)
+                .map(restaurant -> {
+                    restaurant.setMenuItems(menuItemRepository.findMenuItemDTOsByRestaurantId(restaurantId));
+                    return restaurant;
+                })
+                .orElse(null));
+    }
+
+    // Bulk form of queryMenu; unknown IDs are absent from the result
+    private Map<UUID, RestaurantDTO> queryMenus(Collection<UUID> restaurantIds) {
+        List<UUID> primaryIds = new ArrayList<>();
+        List<UUID> replicaIds = new ArrayList<>();
+        for (UUID restaurantId : restaurantIds) {
+            (readYourWrites.requiresPrimary(restaurantId) ? primaryIds : replicaIds).add(restaurantId);
+        }
+        Map<UUID, RestaurantDTO> restaurants = replicaIds.isEmpty() ? new LinkedHashMap<>() : selectMenus(replicaIds);
+        if (readYourWrites.isEnabled()) {
+            replicaIds.stream().filter(restaurantId -> !restaurants.containsKey(restaurantId)).forEach(primaryIds::add);
+        }
+        if (!primaryIds.isEmpty()) {
+            restaurants.putAll(ReplicaDataSource.onPrimary(() -> selectMenus(primaryIds)));
+        }
+        return restaurants;
+    }
+
+    // Two IN (...) queries: restaurant columns, then the items of the restaurants found
+    private Map<UUID, RestaurantDTO> selectMenus(Collection<UUID> restaurantIds) {
+        return readOnlyTransaction.execute(status -> {
+            Map<UUID, RestaurantDTO> restaurants = new LinkedHashMap<>();
+            for (RestaurantDTO restaurant : restaurantRepository.findMenuHeadersByIds(restaurantIds)) {
+                restaurants.put(restaurant.getRestaurantId(), restaurant);
+            }
+            if (!restaurants.isEmpty()) {
+                for (Object[] row : menuItemRepository.findMenuItemRowsByRestaurantIds(restaurants.keySet())) {
+                    restaurants.get((UUID) row[0]).getMenuItems().add(new MenuItemDTO(
+                            (UUID) row[1], (String) row[2], (BigDecimal) row[3], (Boolean) row[4], (Boolean) row[5]));
+                }
+            }
+            return restaurants;
+        });
+    }
+
+    private static ResourceNotFoundException restaurantNotFound(UUID restaurantId) {
+        return new ResourceNotFoundException("Restaurant not found with ID: " + restaurantId);
+    }
+
+    /**
+     * One line per menu read (tier, item count, service latency) in place of the per-step logs.
+     * A sample-rate share of requests is logged, plus every request at or over the slow threshold.
+     */
+    void logRequestSummary(UUID restaurantId, String tier, RestaurantDTO restaurant, long startNanos) {
+        if (!requestLogger.isInfoEnabled()) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        boolean slow = elapsedNanos >= requestLogSlowThreshold.toNanos();
+        if (!slow && (requestLogSampleRate <= 0
+                || (requestLogSampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= requestLogSampleRate))) {
+            return;
+        }
+        requestLogger.info("menu restaurant={} tier={} items={} latencyMicros={}{}",
+                restaurantId, tier, restaurant.getMenuItems().size(), elapsedNanos / 1000, slow ? " slow" : "");
+    }
+
+    // After an L1 hit (here and in ReactiveMenuService): refresh the menu if it is past the soft TTL
+    void refreshIfStale(UUID restaurantId) {
+        if (refreshEnabled && cacheService.isL1EntryOlderThan(restaurantId, refreshSoftTtl)) {
+            staleServed.increment();
+            scheduleRefresh(restaurantId);
+        }
+    }
+
+    /**
+     * Stale-while-revalidate: reload a menu past its soft TTL in the background.
+     * At most one refresh per restaurant is queued; if the pool is saturated the
+     * refresh is dropped and a later request past the soft TTL will retry it.
+     */
+    private void scheduleRefresh(UUID restaurantId) {
+        if (!pendingRefreshes.add(restaurantId)) {
+            return;
+        }
+        try {
+            menuRefreshExecutor.execute(() -> {
+                try {
+                    menuLoadCoalescer.load(restaurantId, () -> loadFromDatabase(restaurantId));
+                } catch (ResourceNotFoundException e) {
+                    logger.warn("Restaurant {} no longer exists, evicting stale menu", restaurantId);
+                    cacheService.clearBothCaches(restaurantId);
+                } catch (Exception e) {
+                    logger.error("Background refresh failed for restaurant: {}: {}", restaurantId, e.getMessage());
+                } finally {
+                    pendingRefreshes.remove(restaurantId);
+                }
+            });
+            logger.debug("Scheduled background refresh for restaurant: {}", restaurantId);
+        } catch (RejectedExecutionException e) {
+            pendingRefreshes.remove(restaurantId);
+            refreshesRejected.increment();
+            logger.debug("Refresh queue full, serving stale menu for restaurant: {}", restaurantId);
+        }
+    }
+
+    public Map<String, Object> getDatabaseStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loads", metrics.getDatabaseLoads());
+        stats.put("notFound", metrics.getDatabaseNotFound());
+        return stats;
+    }
+
+    public Map<String, Object> getRefreshStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", refreshEnabled);
+        stats.put("softTtlSeconds", refreshSoftTtl.getSeconds());
+        stats.put("staleServed", staleServed.sum());
+        stats.put("refreshesRejected", refreshesRejected.sum());
+        stats.put("refreshesPending", pendingRefreshes.size());
+        return stats;
+    }
+
     /**
      * Convert Restaurant entity to DTO
+     * Package-private for the read-path benchmarks.
      */
-    private RestaurantDTO convertToDTO(Restaurant restaurant) {
+    RestaurantDTO convertToDTO(Restaurant restaurant) {
         logger.debug("Converting restaurant entity to DTO for restaurant: {}", restaurant.getRestaurantId());
 
         List<MenuItemDTO> menuItemDTOs = restaurant.getMenuItems().stream()
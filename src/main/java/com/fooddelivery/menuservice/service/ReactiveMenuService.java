@@ -0,0 +1,92 @@
+package com.fooddelivery.menuservice.service;
+
+import com.fooddelivery.menuservice.cache.HotKeyTracker;
+import com.fooddelivery.menuservice.cache.L2HedgePolicy;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.fooddelivery.menuservice.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.UUID;
+
+/**
+ * Non-blocking variant of MenuService.getRestaurantMenu for GET .../menu/async.
+ *
+ * L1 (and the off-heap tier) is read on the calling thread and answered immediately.
+ * L2 uses the reactive Lettuce API, so no thread waits on Redis. Only the JPA fallback
+ * blocks, and it runs on a bounded elastic scheduler (menu.reactive.db-threads threads,
+ * menu.reactive.db-queue-capacity queued loads) instead of a servlet worker.
+ */
+@Service
+public class ReactiveMenuService {
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private L2HedgePolicy hedgePolicy;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Value("${menu.reactive.db-threads:10}")
+    private int databaseThreads;
+
+    @Value("${menu.reactive.db-queue-capacity:1000}")
+    private int databaseQueueCapacity;
+
+    private Scheduler databaseScheduler;
+
+    @PostConstruct
+    public void init() {
+        databaseScheduler = Schedulers.newBoundedElastic(databaseThreads, databaseQueueCapacity, "menu-db");
+    }
+
+    @PreDestroy
+    public void stop() {
+        databaseScheduler.dispose();
+    }
+
+    public Mono<RestaurantDTO> getRestaurantMenu(UUID restaurantId) {
+        long start = System.nanoTime();
+        hotKeyTracker.record(restaurantId);
+        RestaurantDTO restaurant = cacheService.getFromL1Cache(restaurantId);
+        if (restaurant != null) {
+            menuService.refreshIfStale(restaurantId);
+            menuService.logRequestSummary(restaurantId, "l1", restaurant, start);
+            return Mono.just(restaurant);
+        }
+
+        try {
+            menuService.rejectIfKnownMissing(restaurantId);
+        } catch (ResourceNotFoundException e) {
+            return Mono.error(e);
+        }
+
+        String[] servedBy = {"l2"};
+        Mono<RestaurantDTO> database = Mono.defer(() -> {
+            servedBy[0] = "db";
+            return Mono.fromCallable(() -> menuService.loadMenuFromDatabase(restaurantId))
+                    .subscribeOn(databaseScheduler);
+        });
+        Mono<RestaurantDTO> l2 = cacheService.getFromL2CacheAsync(restaurantId);
+        if (hedgePolicy.isEnabled()) {
+            // Past the hedge delay the L2 read is cancelled and the database load starts
+            l2 = l2.timeout(hedgePolicy.currentDelay(), Mono.defer(() -> {
+                hedgePolicy.recordHedge();
+                return database;
+            }));
+        }
+        return l2.switchIfEmpty(database)
+                .doOnNext(loaded -> menuService.logRequestSummary(restaurantId, servedBy[0], loaded, start));
+    }
+}
@@ -0,0 +1,108 @@
+package com.fooddelivery.menuservice.service;
+
+import com.fooddelivery.menuservice.cache.CacheInvalidationBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Restaurants written recently, on this node or (via the invalidation bus) on another one.
+ *
+ * With read replicas enabled, their menus are loaded from the primary for
+ * menu.datasource.read-your-writes-window after the write, so a lagging replica cannot hand
+ * out (and the caches cannot keep) a menu older than the write. If invalidation messages were
+ * missed, every load goes to the primary for one window.
+ */
+@Component
+public class ReadYourWrites implements CacheInvalidationBus.Listener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadYourWrites.class);
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${menu.datasource.replicas.enabled:false}")
+    private boolean enabled;
+
+    @Value("${menu.datasource.read-your-writes-window:5s}")
+    private Duration window;
+
+    private Cache<UUID, Boolean> recentWrites;
+    private volatile long allOnPrimaryUntilNanos;
+
+    private final LongAdder primaryReads = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+        allOnPrimaryUntilNanos = System.nanoTime();
+        if (enabled) {
+            invalidationBus.addListener(this);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void markWritten(Collection<UUID> restaurantIds) {
+        if (enabled) {
+            restaurantIds.forEach(restaurantId -> recentWrites.put(restaurantId, Boolean.TRUE));
+        }
+    }
+
+    /**
+     * Whether the menu must be read from the primary rather than a replica
+     */
+    public boolean requiresPrimary(UUID restaurantId) {
+        if (!enabled) {
+            return false;
+        }
+        boolean primary = System.nanoTime() - allOnPrimaryUntilNanos < 0
+                || recentWrites.getIfPresent(restaurantId) != null;
+        if (primary) {
+            primaryReads.increment();
+        }
+        return primary;
+    }
+
+    @Override
+    public void onInvalidate(Collection<UUID> restaurantIds) {
+        markWritten(restaurantIds);
+    }
+
+    @Override
+    public void onInvalidateAll(String reason) {
+        allOnPrimaryUntilNanos = System.nanoTime() + window.toNanos();
+        logger.debug("Reading every menu from the primary for {} ms: {}", window.toMillis(), reason);
+    }
+
+    @Override
+    public void onCreated(Collection<UUID> restaurantIds) {
+        markWritten(restaurantIds);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("windowMillis", window.toMillis());
+        stats.put("tracked", recentWrites.estimatedSize());
+        stats.put("primaryReads", primaryReads.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,180 @@
+package com.fooddelivery.menuservice.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Full catalogue export as NDJSON, one restaurant with its menu items per line.
+ *
+ * Rows come from one forward-only, read-only cursor over restaurant LEFT JOIN menu_items,
+ * ordered by restaurant ID and read menu.export.fetch-size rows at a time. Each row is
+ * written to the output as soon as it is read: no entities are loaded and no restaurant is
+ * held beyond its current row, so heap use does not grow with the catalogue. Lines are in
+ * restaurant ID order, so an interrupted export resumes with after = the last ID received.
+ */
+@Service
+public class RestaurantExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantExportService.class);
+
+    private static final String COLUMNS =
+            "r.restaurant_id, r.name, r.address, m.menu_id, m.name, m.price, m.availability, m.veg";
+    private static final String EXPORT_SQL = "SELECT " + COLUMNS
+            + " FROM restaurant r LEFT JOIN menu_items m ON m.restaurant_id = r.restaurant_id"
+            + " WHERE r.restaurant_id > ? ORDER BY r.restaurant_id";
+    // With a limit, the restaurants are chosen first so the join reads only their items
+    private static final String EXPORT_PAGE_SQL = "SELECT " + COLUMNS
+            + " FROM (SELECT restaurant_id, name, address FROM restaurant WHERE restaurant_id > ?"
+            + " ORDER BY restaurant_id LIMIT ?) r"
+            + " LEFT JOIN menu_items m ON m.restaurant_id = r.restaurant_id ORDER BY r.restaurant_id";
+    // Lower bound for a full export: sorts before every BINARY(16) ID
+    private static final byte[] FIRST_ID = new byte[16];
+
+    private static final SerializableString RESTAURANT_ID = new SerializedString("restaurantId");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString ADDRESS = new SerializedString("address");
+    private static final SerializableString MENU_ITEMS = new SerializedString("menuItems");
+    private static final SerializableString MENU_ID = new SerializedString("menuId");
+    private static final SerializableString PRICE = new SerializedString("price");
+    private static final SerializableString AVAILABILITY = new SerializedString("availability");
+    private static final SerializableString VEG = new SerializedString("veg");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${menu.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private TransactionTemplate exportTransaction;
+
+    @PostConstruct
+    public void init() {
+        exportTransaction = new TransactionTemplate(transactionManager);
+        exportTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Write every restaurant with an ID after the given one (all if null), at most limit
+     * restaurants if given, to out as NDJSON. out is flushed but not closed.
+     */
+    public void exportRestaurants(OutputStream out, UUID after, Integer limit) throws IOException {
+        long start = System.nanoTime();
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are ended explicitly instead of separating root values with a space
+        generator.setRootValueSeparator(null);
+
+        PreparedStatementCreator statement = connection -> {
+            PreparedStatement ps = connection.prepareStatement(limit == null ? EXPORT_SQL : EXPORT_PAGE_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setBytes(1, after == null ? FIRST_ID : MenuService.uuidBytes(after));
+            if (limit != null) {
+                ps.setInt(2, limit);
+            }
+            return ps;
+        };
+
+        long[] counts;
+        try {
+            counts = exportTransaction.execute(status ->
+                    jdbcTemplate.query(statement, (ResultSetExtractor<long[]>) rs -> writeRows(rs, generator)));
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor is closed with the transaction
+            throw e.getCause();
+        }
+        generator.close();
+
+        logger.info("Export finished: {} restaurants, {} menu items after {} in {} ms",
+                counts[0], counts[1], after, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Rows arrive grouped by restaurant; returns {restaurants, menu items} written
+    private long[] writeRows(ResultSet rs, JsonGenerator generator) throws SQLException {
+        long restaurants = 0;
+        long menuItems = 0;
+        byte[] current = null;
+        try {
+            while (rs.next()) {
+                byte[] restaurantId = rs.getBytes(1);
+                if (!Arrays.equals(restaurantId, current)) {
+                    if (current != null) {
+                        endRestaurant(generator);
+                    }
+                    current = restaurantId;
+                    restaurants++;
+                    generator.writeStartObject();
+                    generator.writeFieldName(RESTAURANT_ID);
+                    generator.writeString(MenuService.uuid(restaurantId).toString());
+                    generator.writeFieldName(NAME);
+                    generator.writeString(rs.getString(2));
+                    generator.writeFieldName(ADDRESS);
+                    generator.writeString(rs.getString(3));
+                    generator.writeFieldName(MENU_ITEMS);
+                    generator.writeStartArray();
+                }
+
+                byte[] menuId = rs.getBytes(4);
+                if (menuId == null) {
+                    // Restaurant without menu items (outer join row)
+                    continue;
+                }
+                menuItems++;
+                generator.writeStartObject();
+                generator.writeFieldName(MENU_ID);
+                generator.writeString(MenuService.uuid(menuId).toString());
+                generator.writeFieldName(NAME);
+                generator.writeString(rs.getString(5));
+                generator.writeFieldName(PRICE);
+                generator.writeNumber(rs.getBigDecimal(6));
+                generator.writeFieldName(AVAILABILITY);
+                generator.writeBoolean(rs.getBoolean(7));
+                generator.writeFieldName(VEG);
+                generator.writeBoolean(rs.getBoolean(8));
+                generator.writeEndObject();
+            }
+            if (current != null) {
+                endRestaurant(generator);
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new long[] {restaurants, menuItems};
+    }
+
+    private static void endRestaurant(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,286 @@
+package com.fooddelivery.menuservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fooddelivery.menuservice.cache.RestaurantIdFilter;
+import com.fooddelivery.menuservice.dto.CreateRestaurantRequest;
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import com.fooddelivery.menuservice.dto.RestaurantImportChunk;
+import com.fooddelivery.menuservice.dto.RestaurantImportResponse;
+import com.fooddelivery.menuservice.repository.RestaurantRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk restaurant import from NDJSON (one CreateRestaurantRequest per line).
+ *
+ * The body is read line by line and imported in chunks of menu.import.chunk-size lines,
+ * each in its own transaction: one IN (...) query finds names that already exist, then
+ * restaurants and menu items are written with JDBC batch inserts. A failing chunk is
+ * rolled back and reported without stopping the import.
+ */
+@Service
+public class RestaurantImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantImportService.class);
+    private static final String INSERT_RESTAURANT_SQL =
+            "INSERT INTO restaurant (restaurant_id, name, address) VALUES (?, ?, ?)";
+    private static final String INSERT_MENU_ITEM_SQL =
+            "INSERT INTO menu_items (menu_id, restaurant_id, name, price, availability, veg) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RestaurantIdFilter restaurantIdFilter;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Value("${menu.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${menu.import.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Value("${menu.import.max-errors-per-chunk:20}")
+    private int maxErrorsPerChunk;
+
+    private ObjectReader requestReader;
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        requestReader = objectMapper.readerFor(CreateRestaurantRequest.class);
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import every restaurant in the NDJSON body. Names must be unique across the database
+     * and the import; duplicates and invalid lines are skipped and reported per chunk.
+     * With warmCache the imported menus are written to L1 and L2 after each chunk commits.
+     */
+    public RestaurantImportResponse importRestaurants(InputStream body, boolean warmCache) throws IOException {
+        long start = System.nanoTime();
+        List<RestaurantImportChunk> chunks = new ArrayList<>();
+        Set<String> namesInImport = new HashSet<>();
+        List<ImportRow> rows = new ArrayList<>(chunkSize);
+        RestaurantImportChunk chunk = null;
+        long lineNumber = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (chunk == null) {
+                chunk = new RestaurantImportChunk(chunks.size() + 1, lineNumber);
+            }
+            chunk.setLastLine(lineNumber);
+
+            if (!line.isBlank()) {
+                CreateRestaurantRequest request = parse(line, lineNumber, chunk);
+                if (request != null) {
+                    if (namesInImport.add(request.getName())) {
+                        rows.add(new ImportRow(lineNumber, request));
+                    } else {
+                        chunk.setDuplicates(chunk.getDuplicates() + 1);
+                        addError(chunk, lineNumber, "duplicate name '" + request.getName() + "' in this import");
+                    }
+                }
+            }
+
+            if (lineNumber - chunk.getFirstLine() + 1 >= chunkSize) {
+                importChunk(chunk, rows, namesInImport, warmCache);
+                chunks.add(chunk);
+                chunk = null;
+                rows = new ArrayList<>(chunkSize);
+            }
+        }
+        if (chunk != null) {
+            importChunk(chunk, rows, namesInImport, warmCache);
+            chunks.add(chunk);
+        }
+
+        RestaurantImportResponse response = new RestaurantImportResponse(
+                lineNumber, chunks, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Import finished: {} lines, {} restaurants, {} menu items, {} duplicates, {} failed in {} ms",
+                lineNumber, response.getImported(), response.getMenuItems(), response.getDuplicates(),
+                response.getFailed(), response.getElapsedMillis());
+        return response;
+    }
+
+    private CreateRestaurantRequest parse(String line, long lineNumber, RestaurantImportChunk chunk) {
+        CreateRestaurantRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            chunk.setFailed(chunk.getFailed() + 1);
+            addError(chunk, lineNumber, "malformed JSON: " + e.getOriginalMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<CreateRestaurantRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<CreateRestaurantRequest> violation = violations.iterator().next();
+            chunk.setFailed(chunk.getFailed() + 1);
+            addError(chunk, lineNumber, violation.getPropertyPath() + ": " + violation.getMessage());
+            return null;
+        }
+        return request;
+    }
+
+    /**
+     * Write one chunk in its own transaction. Any failure rolls the chunk back and is reported
+     * in the chunk's result; its names are released, so later lines may still use them.
+     */
+    private void importChunk(RestaurantImportChunk chunk, List<ImportRow> rows, Set<String> namesInImport,
+                             boolean warmCache) {
+        if (rows.isEmpty()) {
+            logChunk(chunk);
+            return;
+        }
+        long start = System.nanoTime();
+        int duplicatesBefore = chunk.getDuplicates();
+        Map<UUID, RestaurantDTO> imported;
+        try {
+            imported = chunkTransaction.execute(status -> insertChunk(chunk, rows));
+        } catch (RuntimeException e) {
+            logger.error("Import chunk {} (lines {}-{}) rolled back: {}",
+                    chunk.getChunk(), chunk.getFirstLine(), chunk.getLastLine(), e.getMessage());
+            rows.forEach(row -> namesInImport.remove(row.request.getName()));
+            chunk.setImported(0);
+            chunk.setMenuItems(0);
+            chunk.setFailed(chunk.getFailed() + rows.size() - (chunk.getDuplicates() - duplicatesBefore));
+            addError(chunk, chunk.getFirstLine(),
+                    "chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            return;
+        }
+
+        if (warmCache) {
+            cacheService.updateBothCaches(imported);
+        }
+        logger.debug("Import chunk {} written in {} ms", chunk.getChunk(), (System.nanoTime() - start) / 1_000_000);
+        logChunk(chunk);
+    }
+
+    // Runs in the chunk transaction; returns the imported menus by restaurant ID
+    private Map<UUID, RestaurantDTO> insertChunk(RestaurantImportChunk chunk, List<ImportRow> rows) {
+        List<String> names = new ArrayList<>(rows.size());
+        rows.forEach(row -> names.add(row.request.getName()));
+        Set<String> existing = new HashSet<>(restaurantRepository.findExistingNames(names));
+
+        Map<UUID, RestaurantDTO> imported = new LinkedHashMap<>();
+        List<MenuItemDTO> menuItems = new ArrayList<>();
+        List<UUID> menuItemRestaurantIds = new ArrayList<>();
+        for (ImportRow row : rows) {
+            CreateRestaurantRequest request = row.request;
+            if (existing.contains(request.getName())) {
+                chunk.setDuplicates(chunk.getDuplicates() + 1);
+                addError(chunk, row.lineNumber, "restaurant '" + request.getName() + "' already exists");
+                continue;
+            }
+
+            UUID restaurantId = UUID.randomUUID();
+            List<MenuItemDTO> items = new ArrayList<>(request.getMenuItems().size());
+            for (MenuItemDTO item : request.getMenuItems()) {
+                // Exact: validation allows at most 2 decimals; the scale matches what the DB returns
+                items.add(new MenuItemDTO(UUID.randomUUID(), item.getName(),
+                        item.getPrice().setScale(2), item.getAvailability(), item.getVeg()));
+                menuItemRestaurantIds.add(restaurantId);
+            }
+            menuItems.addAll(items);
+            imported.put(restaurantId, new RestaurantDTO(restaurantId, request.getName(), request.getAddress(), items));
+        }
+
+        List<RestaurantDTO> restaurants = new ArrayList<>(imported.values());
+        jdbcTemplate.batchUpdate(INSERT_RESTAURANT_SQL, restaurants, jdbcBatchSize, (ps, restaurant) -> {
+            ps.setBytes(1, MenuService.uuidBytes(restaurant.getRestaurantId()));
+            ps.setString(2, restaurant.getName());
+            ps.setString(3, restaurant.getAddress());
+        });
+        int[] index = {0};
+        jdbcTemplate.batchUpdate(INSERT_MENU_ITEM_SQL, menuItems, jdbcBatchSize, (ps, item) -> {
+            ps.setBytes(1, MenuService.uuidBytes(item.getMenuId()));
+            ps.setBytes(2, MenuService.uuidBytes(menuItemRestaurantIds.get(index[0]++)));
+            ps.setString(3, item.getName());
+            ps.setBigDecimal(4, item.getPrice());
+            ps.setBoolean(5, item.getAvailability());
+            ps.setBoolean(6, item.getVeg());
+        });
+        restaurantIdFilter.addAfterCommit(imported.keySet());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.markWritten(imported.keySet());
+            }
+        });
+
+        chunk.setImported(imported.size());
+        chunk.setMenuItems(menuItems.size());
+        return imported;
+    }
+
+    private void addError(RestaurantImportChunk chunk, long lineNumber, String message) {
+        if (chunk.getErrors().size() < maxErrorsPerChunk) {
+            chunk.getErrors().add("line " + lineNumber + ": " + message);
+        }
+    }
+
+    private static void logChunk(RestaurantImportChunk chunk) {
+        logger.info("Import chunk {} (lines {}-{}): {} restaurants, {} menu items, {} duplicates, {} failed",
+                chunk.getChunk(), chunk.getFirstLine(), chunk.getLastLine(), chunk.getImported(),
+                chunk.getMenuItems(), chunk.getDuplicates(), chunk.getFailed());
+    }
+
+    private static final class ImportRow {
+        private final long lineNumber;
+        private final CreateRestaurantRequest request;
+
+        private ImportRow(long lineNumber, CreateRestaurantRequest request) {
+            this.lineNumber = lineNumber;
+            this.request = request;
+        }
+    }
+}
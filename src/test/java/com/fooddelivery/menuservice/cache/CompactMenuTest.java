@@ -0,0 +1,100 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactMenuTest {
+
+    private static final UUID PIZZA = UUID.fromString("0b7f2c1e-5d3a-4e8f-9a6b-1c2d3e4f5a6b");
+    private static final UUID SALAD = UUID.fromString("7e6d5c4b-3a29-4817-8f6e-5d4c3b2a1908");
+
+    private final RestaurantDTO restaurant = new RestaurantDTO(UUID.randomUUID(), "Pizza Place", "1 Main St", List.of(
+            new MenuItemDTO(PIZZA, "Margherita", new BigDecimal("12.9"), true, true),
+            new MenuItemDTO(SALAD, "Caesar Salad", new BigDecimal("8.75"), false, false)));
+
+    @Test
+    void writesTheSameJsonAsThePlainMenu() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        RestaurantDTO view = CompactMenu.from(restaurant).toRestaurantDTO();
+
+        // Prices keep their own scale: 12.9, not 12.90
+        assertThat(objectMapper.writeValueAsString(view)).isEqualTo(objectMapper.writeValueAsString(restaurant));
+    }
+
+    @Test
+    void writesTypedItemsAsAPlainList() {
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        List<MenuItemDTO> items = CompactMenu.from(restaurant).toRestaurantDTO().getMenuItems();
+
+        Object read = serializer.deserialize(serializer.serialize(items));
+
+        assertThat(read).isInstanceOf(ArrayList.class);
+        assertThat(read).asInstanceOf(InstanceOfAssertFactories.list(MenuItemDTO.class))
+                .extracting(MenuItemDTO::getPrice)
+                .containsExactly(new BigDecimal("12.9"), new BigDecimal("8.75"));
+    }
+
+    @Test
+    void detachedViewsRoundTripThroughTypedRedisJson() {
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        RestaurantDTO detached = CompactMenu.detach(CompactMenu.from(restaurant).toRestaurantDTO());
+
+        RestaurantDTO read = (RestaurantDTO) serializer.deserialize(serializer.serialize(detached));
+
+        assertThat(CompactMenu.detach(restaurant)).isSameAs(restaurant);
+        assertThat(read.getRestaurantId()).isEqualTo(restaurant.getRestaurantId());
+        assertThat(read.getMenuItems()).extracting(MenuItemDTO::getMenuId).containsExactly(PIZZA, SALAD);
+        assertThat(read.getMenuItems()).extracting(MenuItemDTO::getVeg).containsExactly(true, false);
+    }
+
+    @Test
+    void handsOutOneViewWithReadOnlyItems() {
+        CompactMenu compact = CompactMenu.from(restaurant);
+        RestaurantDTO view = compact.toRestaurantDTO();
+
+        assertThat(compact.toRestaurantDTO()).isSameAs(view);
+        assertThat(CompactMenu.backing(view)).isSameAs(compact);
+        assertThat(CompactMenu.from(view)).isSameAs(compact);
+        assertThat(CompactMenu.backing(restaurant)).isNull();
+        assertThatThrownBy(() -> view.getMenuItems().remove(0)).isInstanceOf(UnsupportedOperationException.class);
+
+        // A view whose fields were replaced no longer stands for the compact menu
+        view.setName("Renamed");
+        assertThat(CompactMenu.backing(view)).isNull();
+    }
+
+    @Test
+    void selectsItemsByIndex() {
+        BitSet second = new BitSet();
+        second.set(1);
+
+        RestaurantDTO selected = CompactMenu.from(restaurant).select(second).toRestaurantDTO();
+
+        assertThat(selected.getMenuItems()).extracting(MenuItemDTO::getName).containsExactly("Caesar Salad");
+        assertThat(selected.getMenuItems().get(0).getPrice()).isEqualTo(new BigDecimal("8.75"));
+    }
+
+    @Test
+    void leavesUnrepresentableMenusAsDtos() {
+        RestaurantDTO tooPrecise = new RestaurantDTO(UUID.randomUUID(), "Fine Dining", "2 Main St",
+                List.of(new MenuItemDTO(PIZZA, "Truffle", new BigDecimal("1.0000000001"), true, false)));
+        RestaurantDTO missingVeg = new RestaurantDTO(UUID.randomUUID(), "Diner", "3 Main St",
+                List.of(new MenuItemDTO(PIZZA, "Burger", new BigDecimal("9.50"), true, null)));
+
+        assertThat(CompactMenu.from(tooPrecise)).isNull();
+        assertThat(CompactMenu.from(missingVeg)).isNull();
+    }
+}
@@ -0,0 +1,140 @@
+package com.fooddelivery.menuservice.cache;
+
+import com.fooddelivery.menuservice.cache.codec.MenuBinaryCodec;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.fooddelivery.menuservice.cache.codec.MenuFixtures.assertSameMenu;
+import static com.fooddelivery.menuservice.cache.codec.MenuFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapMenuStoreTest {
+
+    // Above every test menu, so record sizes are the plain encoded sizes
+    private static final int COMPRESSION_THRESHOLD = 1 << 20;
+    private static final int HEADER_BYTES = 28;
+
+    private final MenuBinaryCodec codec = new MenuBinaryCodec(COMPRESSION_THRESHOLD);
+
+    @Test
+    void takeReturnsTheStoredMenuOnce() {
+        OffHeapMenuStore store = store(4096, Duration.ofMinutes(1));
+        RestaurantDTO restaurant = restaurant(3);
+        store.put(restaurant);
+
+        assertSameMenu(store.take(restaurant.getRestaurantId()), restaurant);
+        assertThat(store.take(restaurant.getRestaurantId())).isNull();
+        assertThat(store.take(UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() {
+        OffHeapMenuStore store = store(4096, Duration.ofMillis(-1));
+        RestaurantDTO restaurant = restaurant(3);
+        store.put(restaurant);
+
+        assertThat(store.take(restaurant.getRestaurantId())).isNull();
+        assertThat(store.getStats().get("expired")).isEqualTo(1L);
+    }
+
+    @Test
+    void rejectsRecordsLargerThanTheRing() {
+        RestaurantDTO restaurant = restaurant(50);
+        OffHeapMenuStore store = store(recordSize(restaurant) - 1, Duration.ofMinutes(1));
+        store.put(restaurant);
+
+        assertThat(store.take(restaurant.getRestaurantId())).isNull();
+        assertThat(store.getStats().get("rejected")).isEqualTo(1L);
+    }
+
+    @Test
+    void evictsOldestRecordsInWriteOrder() {
+        List<RestaurantDTO> restaurants = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            restaurants.add(restaurant(5));
+        }
+        int recordSize = recordSize(restaurants.get(0));
+        // Room for four records, plus a gap that forces padding at the end of the ring
+        OffHeapMenuStore store = store(4 * recordSize + recordSize / 2, Duration.ofMinutes(1));
+        restaurants.forEach(store::put);
+
+        for (int i = 0; i < 6; i++) {
+            assertThat(store.take(restaurants.get(i).getRestaurantId())).isNull();
+        }
+        for (int i = 6; i < 10; i++) {
+            assertSameMenu(store.take(restaurants.get(i).getRestaurantId()), restaurants.get(i));
+        }
+        assertThat(store.getStats().get("evicted")).isEqualTo(6L);
+    }
+
+    @Test
+    void wrapsARecordLongerThanTheSpaceLeftBehindTail() {
+        RestaurantDTO small = restaurant(1);
+        RestaurantDTO big = restaurant(20);
+        int capacity = recordSize(big) + recordSize(small) / 2;
+        OffHeapMenuStore store = store(capacity, Duration.ofMinutes(1));
+
+        // The big record does not fit after the small one; with the padding it exceeds the ring
+        store.put(small);
+        store.put(big);
+        assertThat((long) store.getStats().get("usedBytes")).isLessThanOrEqualTo(capacity);
+
+        RestaurantDTO next = restaurant(1);
+        store.put(next);
+        assertThat((long) store.getStats().get("usedBytes")).isLessThanOrEqualTo(capacity);
+        assertThat(store.take(small.getRestaurantId())).isNull();
+        assertThat(store.take(big.getRestaurantId())).isNull();
+        assertSameMenu(store.take(next.getRestaurantId()), next);
+        assertThat(store.getStats().get("evicted")).isEqualTo(2L);
+    }
+
+    @Test
+    void survivesManyWrapsWithMixedRecordSizes() {
+        Random random = new Random(42);
+        int capacity = recordSize(restaurant(40)) * 3;
+        OffHeapMenuStore store = store(capacity, Duration.ofMinutes(1));
+        List<RestaurantDTO> live = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            RestaurantDTO restaurant = restaurant(1 + random.nextInt(60));
+            store.put(restaurant);
+            live.add(restaurant);
+            assertThat((long) store.getStats().get("usedBytes")).isLessThanOrEqualTo(capacity);
+            if (random.nextInt(3) == 0) {
+                RestaurantDTO taken = live.remove(random.nextInt(live.size()));
+                RestaurantDTO found = store.take(taken.getRestaurantId());
+                if (found != null) {
+                    assertSameMenu(found, taken);
+                }
+            }
+        }
+        // The most recent write is always held
+        RestaurantDTO last = live.get(live.size() - 1);
+        assertSameMenu(store.take(last.getRestaurantId()), last);
+    }
+
+    private OffHeapMenuStore store(int capacity, Duration ttl) {
+        OffHeapMenuStore store = new OffHeapMenuStore();
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "capacity", DataSize.ofBytes(capacity));
+        ReflectionTestUtils.setField(store, "segmentCount", 1);
+        ReflectionTestUtils.setField(store, "ttl", ttl);
+        ReflectionTestUtils.setField(store, "compressionThreshold", COMPRESSION_THRESHOLD);
+        store.init();
+        return store;
+    }
+
+    private int recordSize(RestaurantDTO restaurant) {
+        return HEADER_BYTES + codec.encode(restaurant).length;
+    }
+}
@@ -0,0 +1,119 @@
+package com.fooddelivery.menuservice.cache.codec;
+
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static com.fooddelivery.menuservice.cache.codec.MenuFixtures.assertSameMenu;
+import static com.fooddelivery.menuservice.cache.codec.MenuFixtures.restaurant;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MenuBinaryCodecTest {
+
+    private final MenuBinaryCodec codec = new MenuBinaryCodec(256);
+
+    @Test
+    void roundTripsPlainAndCompressedMenus() {
+        for (int items : new int[] {0, 3, 200}) {
+            RestaurantDTO restaurant = restaurant(items);
+            byte[] entry = codec.encode(restaurant);
+            assertThat(MenuBinaryCodec.isBinary(entry)).isTrue();
+            assertSameMenu(codec.decode(entry), restaurant);
+        }
+        // 200 items exceed the threshold and are deflated
+        assertThat(codec.encode(restaurant(200))[2]).isEqualTo((byte) 1);
+    }
+
+    @Test
+    void roundTripsNullFields() {
+        RestaurantDTO restaurant = new RestaurantDTO(null, null, "Nowhere",
+                List.of(new MenuItemDTO(null, null, null, null, null)));
+        assertSameMenu(codec.decode(codec.encode(restaurant)), restaurant);
+
+        RestaurantDTO noItems = new RestaurantDTO(UUID.randomUUID(), "Empty", null, null);
+        assertThat(codec.decode(codec.encode(noItems)).getMenuItems()).isNull();
+    }
+
+    @Test
+    void rejectsPricesTheFormatCannotHold() {
+        RestaurantDTO scale = new RestaurantDTO(UUID.randomUUID(), "Scale", "x",
+                List.of(new MenuItemDTO(UUID.randomUUID(), "A", new BigDecimal("1E-200"), true, true)));
+        assertThatThrownBy(() -> codec.encode(scale)).isInstanceOf(ArithmeticException.class);
+
+        RestaurantDTO unscaled = new RestaurantDTO(UUID.randomUUID(), "Unscaled", "x",
+                List.of(new MenuItemDTO(UUID.randomUUID(), "A", new BigDecimal("1e30").setScale(2), true, true)));
+        assertThatThrownBy(() -> codec.encode(unscaled)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void rejectsUnknownVersionsAndForeignBytes() {
+        byte[] entry = codec.encode(restaurant(3));
+        entry[1] = (byte) (MenuBinaryCodec.FORMAT_VERSION + 1);
+        assertThatThrownBy(() -> codec.decode(entry)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode("{\"a\":1}".getBytes())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode(new byte[] {MenuBinaryCodec.MAGIC}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTruncatedEntries() {
+        for (RestaurantDTO restaurant : List.of(restaurant(3), restaurant(200))) {
+            byte[] entry = codec.encode(restaurant);
+            for (int length = 3; length < entry.length; length++) {
+                byte[] truncated = Arrays.copyOf(entry, length);
+                assertThatThrownBy(() -> codec.decode(truncated)).isInstanceOf(IllegalArgumentException.class);
+            }
+        }
+    }
+
+    @Test
+    void rejectsCorruptLengths() {
+        // Restaurant name length (varint, +1 for null) far beyond the entry
+        byte[] name = header(ByteBuffer.allocate(32).put((byte) 0).put(new byte[] {(byte) 0xFF, (byte) 0xFF, 0x7F}));
+        assertThatThrownBy(() -> codec.decode(name)).isInstanceOf(IllegalArgumentException.class);
+
+        // Negative length: a five-byte varint setting the sign bit
+        byte[] negative = header(ByteBuffer.allocate(32).put((byte) 0)
+                .put(new byte[] {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08}));
+        assertThatThrownBy(() -> codec.decode(negative)).isInstanceOf(IllegalArgumentException.class);
+
+        // Item count far beyond the entry
+        byte[] items = header(ByteBuffer.allocate(32).put((byte) 0).put((byte) 0).put((byte) 0)
+                .put(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}));
+        assertThatThrownBy(() -> codec.decode(items)).isInstanceOf(IllegalArgumentException.class);
+
+        // Compressed entry claiming a huge or negative uncompressed length
+        byte[] compressed = {MenuBinaryCodec.MAGIC, MenuBinaryCodec.FORMAT_VERSION, 1,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 1, 2, 3};
+        assertThatThrownBy(() -> codec.decode(compressed)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsFlippedBytesWithIllegalArgumentOnly() {
+        byte[] entry = codec.encode(restaurant(5));
+        for (int i = 3; i < entry.length; i++) {
+            byte[] corrupt = entry.clone();
+            corrupt[i] = (byte) ~corrupt[i];
+            try {
+                codec.decode(corrupt);
+            } catch (IllegalArgumentException e) {
+                // expected for most positions; others decode to different values
+            }
+        }
+    }
+
+    private static byte[] header(ByteBuffer body) {
+        byte[] entry = new byte[3 + body.position()];
+        entry[0] = MenuBinaryCodec.MAGIC;
+        entry[1] = MenuBinaryCodec.FORMAT_VERSION;
+        System.arraycopy(body.array(), 0, entry, 3, body.position());
+        return entry;
+    }
+}
@@ -0,0 +1,47 @@
+package com.fooddelivery.menuservice.cache.codec;
+
+import com.fooddelivery.menuservice.dto.MenuItemDTO;
+import com.fooddelivery.menuservice.dto.RestaurantDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Menus for the codec and off-heap store tests, and a field-by-field comparison of decoded menus
+ */
+public final class MenuFixtures {
+
+    private MenuFixtures() {
+    }
+
+    // Non-ASCII names, varying prices and availability, and some items without a veg flag
+    public static RestaurantDTO restaurant(int itemCount) {
+        List<MenuItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new MenuItemDTO(UUID.randomUUID(), "Item " + i + " é", new BigDecimal("12.9" + (i % 10)),
+                    i % 2 == 0, i % 3 == 0 ? null : i % 3 == 1));
+        }
+        return new RestaurantDTO(UUID.randomUUID(), "Pizza Place", "1 Main St", items);
+    }
+
+    public static void assertSameMenu(RestaurantDTO actual, RestaurantDTO expected) {
+        assertThat(actual).isNotNull();
+        assertThat(actual.getRestaurantId()).isEqualTo(expected.getRestaurantId());
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getAddress()).isEqualTo(expected.getAddress());
+        assertThat(actual.getMenuItems()).hasSameSizeAs(expected.getMenuItems());
+        for (int i = 0; i < expected.getMenuItems().size(); i++) {
+            MenuItemDTO a = actual.getMenuItems().get(i);
+            MenuItemDTO e = expected.getMenuItems().get(i);
+            assertThat(a.getMenuId()).isEqualTo(e.getMenuId());
+            assertThat(a.getName()).isEqualTo(e.getName());
+            assertThat(a.getPrice()).isEqualTo(e.getPrice());
+            assertThat(a.getAvailability()).isEqualTo(e.getAvailability());
+            assertThat(a.getVeg()).isEqualTo(e.getVeg());
+        }
+    }
+}